@@ -0,0 +1,541 @@
+package bench;
+
+import maze.*;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Class - Benchmark suite for the path algorithms and the maze file loader
+ * Measures throughput (ops/s) and allocation (Bytes per op, MB/s and GC activity) of each benchmark,
+ * run on the shipped maze files and on seeded generated mazes of varied size, wall density and cost range (See MazeGenerator)
+ *
+ * Works like a JMH throughput benchmark: each benchmark runs in a fresh JVM (A fork, started with the same
+ * JVM options and classpath) so JIT profiles, heap state and cached maze tables of one benchmark cannot
+ * affect the next. In the fork, warmup iterations are run and discarded, then each measurement iteration
+ * calls the benchmark until its time budget runs out
+ * Results are kept alive in a sink so the JIT cannot drop the searched work
+ * ALT landmarks and HPA* cluster graphs are built by the first call on a maze (During warmup)
+ *
+ * Usage: java -Xmx2g bench.PathBenchmark [options]
+ *      -sizes 10000,100000,...     generated maze sizes in cells (Square mazes)
+ *      -densities 0,0.2,0.35       generated wall densities
+ *      -costs 1,1-9                generated cost ranges (min-max, or one cost)
+ *      -files a.txt,b.txt          shipped maze files to run (Default all)
+ *      -algorithms DFS,BFS,...     algorithms to run (Default all, see ALGORITHMS)
+ *      -warmup 3                   warmup iterations per benchmark
+ *      -iterations 5               measurement iterations per benchmark
+ *      -time 1000                  milliseconds per iteration
+ *      -forks 1                    fresh JVMs per benchmark, one result row each (0 runs all in this JVM)
+ *      -seed 42                    generator seed
+ *      -shipped / -generated       only run one of the maze sets
+ *      -noimport / -nosearch       skip the file loading or the search benchmarks
+ */
+public class PathBenchmark {
+    private static final int[] DEFAULT_SIZES = {10_000, 100_000, 1_000_000, 10_000_000};
+    private static final double[] DEFAULT_DENSITIES = {0.0, 0.2, 0.35};
+    private static final String[] DEFAULT_COSTS = {"1", "1-9"};
+    private static final String[] ALGORITHMS = {"DFS", "BFS", "BiBFS", "UCS", "Dial", "A*", "ALT", "BiA*", "JPS", "HPA*"};
+    private static final String CHILD = "-child"; // Marks a forked JVM running one benchmark (Internal option)
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long sink; // Consumes every benchmark result
+
+    // Options
+    private int[] sizes = DEFAULT_SIZES;
+    private double[] densities = DEFAULT_DENSITIES;
+    private String[] costRanges = DEFAULT_COSTS;
+    private String[] files = null; // null for every shipped maze
+    private String[] algorithms = ALGORITHMS;
+    private int warmup = 3;
+    private int iterations = 5;
+    private long iterationTime = 1000;
+    private int forks = 1;
+    private long seed = 42;
+    private boolean shipped = true;
+    private boolean generated = true;
+    private boolean imports = true;
+    private boolean searches = true;
+    private boolean child = false;
+
+    /**
+     * Interface - One benchmarked call
+     */
+    @FunctionalInterface
+    private interface Operation {
+        /**
+         * Method to run the benchmarked call once
+         * @return a value derived from the result (Consumed by the sink)
+         * @throws IOException if a benchmarked file cannot be read
+         */
+        long run() throws IOException;
+    }
+
+    /**
+     * Record - A maze with the query searched through it
+     * @param name is the maze name shown in the results
+     * @param maze is the maze to search
+     * @param start is the start node
+     * @param goal is the goal node
+     */
+    private record Workload(String name, Maze maze, Node start, Node goal) {}
+
+    /**
+     * Record - Result of the measurement iterations of one benchmark
+     * @param opsPerSecond is the mean throughput
+     * @param error is the standard deviation of the throughput between iterations
+     * @param bytesPerOp is the mean heap allocated per call
+     * @param allocRate is the allocation rate in MB/s
+     * @param gcCount is the number of collections during measurement
+     * @param gcTime is the collection time during measurement in ms
+     */
+    private record Measurement(double opsPerSecond, double error, double bytesPerOp, double allocRate,
+                               long gcCount, long gcTime) {}
+
+    /**
+     * Method to run the benchmark suite from the command line
+     * @param args are the benchmark options (See class comment)
+     */
+    public static void main(String[] args) {
+        PathBenchmark benchmark = new PathBenchmark();
+        try {
+            benchmark.parseOptions(args);
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.out.println("Usage: java -Xmx2g bench.PathBenchmark [-sizes n,...] [-densities d,...] [-costs min-max,...]"
+                    + " [-files name,...] [-algorithms name,...] [-warmup n] [-iterations n] [-time ms] [-forks n] [-seed n]"
+                    + " [-shipped | -generated] [-noimport | -nosearch]");
+            return;
+        }
+        if(!THREADS.isThreadAllocatedMemorySupported() && !benchmark.child) {
+            System.err.println("Thread allocation counters are not supported by this JVM - allocation columns will be 0");
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        try {
+            benchmark.run();
+        }
+        catch (IOException e) {
+            System.err.println("Benchmark failed: " + e.getMessage());
+        }
+        if(sink == 42) {
+            System.out.println(); // Keeps the sink observable
+        }
+    }
+
+    // *** Suite ***
+
+    /**
+     * Method to run every selected benchmark, printing one result row per benchmark
+     * @throws IOException if a maze file cannot be read or written
+     */
+    private void run() throws IOException {
+        if(!child) {
+            printHeader();
+        }
+
+        // Shipped Mazes
+        if(shipped) {
+            for(String filename : files != null ? files : FileUtils.getAllMazeFiles()) {
+                if(forks > 0) {
+                    forkAll("-shipped", "-files", filename);
+                    continue;
+                }
+                CostGrid grid = FileUtils.importCostGrid(filename);
+                if(grid == null) {
+                    continue;
+                }
+                Workload workload = createWorkload(filename, new Maze(grid));
+                runSearches(workload);
+
+                if(imports) {
+                    report("importMazeFile", filename, grid.getHeight() * grid.getWidth(),
+                            measure(() -> FileUtils.importMazeFile(filename).length));
+                }
+            }
+        }
+
+        // Generated Mazes
+        if(generated) {
+            for(int cells : sizes) {
+                int side = Math.max(2, (int) Math.round(Math.sqrt(cells)));
+                for(double density : densities) {
+                    for(String costRange : costRanges) {
+                        if(forks > 0) {
+                            forkAll("-generated", "-sizes", Integer.toString(cells),
+                                    "-densities", Double.toString(density), "-costs", costRange);
+                            continue;
+                        }
+                        String name = String.format(Locale.ROOT, "gen %dx%d walls=%.2f costs=%s",
+                                side, side, density, costRange);
+                        int dash = costRange.indexOf('-');
+                        MazeGenerator generator = new MazeGenerator(side, side, MazeGenerator.MODE_RANDOM,
+                                seed ^ cells * 31L ^ Double.doubleToLongBits(density) ^ costRange.hashCode());
+                        generator.setDensity(density);
+                        generator.setCosts(Integer.parseInt(dash < 0 ? costRange : costRange.substring(0, dash)),
+                                Integer.parseInt(dash < 0 ? costRange : costRange.substring(dash + 1)), MazeGenerator.COSTS_UNIFORM);
+                        runSearches(createWorkload(name, new Maze(generator.generate())));
+
+                        if(imports) {
+                            runParse(name, generator, side * side);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to run the selected algorithms on a workload
+     * @param workload is the given workload
+     * @throws IOException never for searches (Shared signature of measured operations)
+     */
+    private void runSearches(Workload workload) throws IOException {
+        if(!searches) {
+            return;
+        }
+        if(workload.start() == null) {
+            System.out.println(workload.name() + ": no open tiles, skipped");
+            return;
+        }
+        Maze maze = workload.maze();
+        for(String algorithm : algorithms) {
+            Operation search = switch(algorithm) {
+                case "DFS" -> () -> cost(PathAlgorithms.depthFirstSearch(workload.start(), workload.goal(), maze, null));
+                case "BFS" -> () -> cost(PathAlgorithms.breadthFirstSearch(workload.start(), workload.goal(), maze, null));
+                case "BiBFS" -> () -> cost(PathAlgorithms.bidirectionalBreadthFirstSearch(workload.start(), workload.goal(), maze, null));
+                case "UCS" -> () -> cost(PathAlgorithms.uniformCostSearch(workload.start(), workload.goal(), maze, null));
+                case "Dial" -> () -> cost(PathAlgorithms.bucketQueueSearch(workload.start(), workload.goal(), maze, null));
+                case "A*" -> () -> cost(PathAlgorithms.aStarSearch(workload.start(), workload.goal(), maze, null));
+                case "ALT" -> () -> cost(PathAlgorithms.landmarkAStarSearch(workload.start(), workload.goal(), maze, null));
+                case "BiA*" -> () -> cost(PathAlgorithms.bidirectionalAStarSearch(workload.start(), workload.goal(), maze, null));
+                case "JPS" -> () -> cost(PathAlgorithms.jumpPointSearch(workload.start(), workload.goal(), maze, null));
+                case "HPA*" -> () -> cost(PathAlgorithms.hierarchicalSearch(workload.start(), workload.goal(), maze, null));
+                default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+            };
+            report(algorithm, workload.name(), maze.getSize(), measure(search));
+        }
+    }
+
+    /**
+     * Method to benchmark the text parser on a generated maze written to a temporary file
+     * @param name is the maze name shown in the results
+     * @param generator is the generator of the maze
+     * @param cells is the number of tiles in the maze
+     * @throws IOException if the temporary file cannot be written
+     */
+    private void runParse(String name, MazeGenerator generator, int cells) throws IOException {
+        Path file = Files.createTempFile("pathfinder-bench", ".txt");
+        try {
+            String filepath = file.toString();
+            generator.writeText(filepath);
+            report("MazeFileParser.parse", name, cells, measure(() -> MazeFileParser.parse(filepath).getMaxCost()));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // *** Forks ***
+
+    /**
+     * Method to run every selected benchmark of one maze, each in its own forks
+     * @param mazeArgs are the options selecting only that maze
+     * @throws IOException if a fork cannot be started
+     */
+    private void forkAll(String... mazeArgs) throws IOException {
+        if(searches) {
+            for(String algorithm : algorithms) {
+                fork(mazeArgs, "-algorithms", algorithm, "-noimport");
+            }
+        }
+        if(imports) {
+            fork(mazeArgs, "-nosearch");
+        }
+    }
+
+    /**
+     * Method to run one benchmark in fresh JVMs (forks times), each printing its own result row
+     * Forks run the same java binary with this JVM's options and classpath
+     * @param mazeArgs are the options selecting only the benchmarked maze
+     * @param benchmarkArgs are the options selecting only the benchmark
+     * @throws IOException if a fork cannot be started
+     */
+    private void fork(String[] mazeArgs, String... benchmarkArgs) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(PathBenchmark.class.getName());
+        command.addAll(List.of(CHILD, "-forks", "0", "-warmup", Integer.toString(warmup),
+                "-iterations", Integer.toString(iterations), "-time", Long.toString(iterationTime),
+                "-seed", Long.toString(seed)));
+        command.addAll(List.of(mazeArgs));
+        command.addAll(List.of(benchmarkArgs));
+
+        for(int i = 0; i < forks; i++) {
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            try {
+                int exitCode = process.waitFor();
+                if(exitCode != 0) {
+                    System.err.println("Fork exited with code " + exitCode + ": " + String.join(" ", mazeArgs)
+                            + " " + String.join(" ", benchmarkArgs));
+                }
+            }
+            catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+                throw new IOException("Benchmark interrupted", e);
+            }
+        }
+    }
+
+    // *** Measurement ***
+
+    /**
+     * Method to measure one benchmark (Warmup iterations, then measurement iterations)
+     * @param operation is the benchmarked call
+     * @return measurement over the measurement iterations
+     * @throws IOException if a benchmarked file cannot be read
+     */
+    private Measurement measure(Operation operation) throws IOException {
+        for(int i = 0; i < warmup; i++) {
+            iterate(operation);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long gcCountBefore = getGcCount();
+        long gcTimeBefore = getGcTime();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+
+        double[] throughput = new double[iterations];
+        long totalOps = 0;
+        long totalNanos = 0;
+        for(int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            long ops = iterate(operation);
+            long nanos = System.nanoTime() - start;
+            throughput[i] = ops * 1e9 / nanos;
+            totalOps += ops;
+            totalNanos += nanos;
+        }
+
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+        double mean = totalOps * 1e9 / totalNanos;
+        double variance = 0;
+        for(double t : throughput) {
+            variance += (t - mean) * (t - mean);
+        }
+        double error = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+
+        return new Measurement(mean, error, (double) bytes / totalOps, bytes / 1e6 / (totalNanos / 1e9),
+                getGcCount() - gcCountBefore, getGcTime() - gcTimeBefore);
+    }
+
+    /**
+     * Method to run one iteration, calling the operation until the iteration time runs out (At least once)
+     * @param operation is the benchmarked call
+     * @return number of calls made
+     * @throws IOException if a benchmarked file cannot be read
+     */
+    private long iterate(Operation operation) throws IOException {
+        long deadline = System.nanoTime() + iterationTime * 1_000_000;
+        long ops = 0;
+        do {
+            sink += operation.run();
+            ops++;
+        } while(System.nanoTime() < deadline);
+        return ops;
+    }
+
+    /**
+     * Method to get the total number of collections of every garbage collector
+     * @return collection count
+     */
+    private static long getGcCount() {
+        long count = 0;
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Method to get the total collection time of every garbage collector
+     * @return collection time in ms
+     */
+    private static long getGcTime() {
+        long time = 0;
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    /**
+     * Method to get a sink value from a search result
+     * @param result is the given search result (null if no path)
+     * @return path cost, or -1 if there is no path
+     */
+    private static long cost(PathResult result) {
+        return result != null ? result.pathCost() : -1;
+    }
+
+    // *** Output ***
+
+    /**
+     * Method to print the header of the result table
+     */
+    private void printHeader() {
+        System.out.printf(Locale.ROOT, "# Warmup: %d x %d ms, Measurement: %d x %d ms, Forks: %d, Seed: %d%n",
+                warmup, iterationTime, iterations, iterationTime, forks, seed);
+        System.out.printf(Locale.ROOT, "%-22s %-38s %10s %14s %10s %14s %10s %6s %8s%n",
+                "Benchmark", "Maze", "Cells", "ops/s", "error", "alloc B/op", "alloc MB/s", "gc", "gc ms");
+    }
+
+    /**
+     * Method to print the result row of one benchmark
+     * @param benchmark is the benchmark name
+     * @param maze is the maze name
+     * @param cells is the number of tiles in the maze
+     * @param m is the measurement of the benchmark
+     */
+    private static void report(String benchmark, String maze, int cells, Measurement m) {
+        System.out.printf(Locale.ROOT, "%-22s %-38s %10d %14.3f %10.3f %14.1f %10.1f %6d %8d%n",
+                benchmark, maze, cells, m.opsPerSecond(), m.error(), m.bytesPerOp(), m.allocRate(),
+                m.gcCount(), m.gcTime());
+    }
+
+    // *** Workloads ***
+
+    /**
+     * Method to create a workload searching between far corners of the largest region of a maze
+     * Start is the first tile of the region and goal is the last (By index), so the query always has a path
+     * @param name is the maze name shown in the results
+     * @param maze is the given maze
+     * @return workload of the maze (Start and goal are null if the maze has no open tiles)
+     */
+    private static Workload createWorkload(String name, Maze maze) {
+        int componentCount = maze.getComponentCount();
+        if(componentCount == 0) {
+            return new Workload(name, maze, null, null);
+        }
+
+        // Largest Region
+        int[] regionSizes = new int[componentCount];
+        for(int i = 0; i < maze.getSize(); i++) {
+            int component = maze.getComponent(i);
+            if(component != Maze.NO_COMPONENT) {
+                regionSizes[component]++;
+            }
+        }
+        int largest = 0;
+        for(int c = 1; c < componentCount; c++) {
+            if(regionSizes[c] > regionSizes[largest]) {
+                largest = c;
+            }
+        }
+
+        int start = 0;
+        while(maze.getComponent(start) != largest) {
+            start++;
+        }
+        int goal = maze.getSize() - 1;
+        while(maze.getComponent(goal) != largest) {
+            goal--;
+        }
+        return new Workload(name, maze, maze.getNode(start), maze.getNode(goal));
+    }
+
+    // *** Options ***
+
+    /**
+     * Method to read the benchmark options from the command line
+     * @param args are the command line arguments
+     * @throws IllegalArgumentException if an option is unknown or has an invalid value
+     */
+    private void parseOptions(String[] args) {
+        for(int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch(option) {
+                case "-shipped" -> generated = false;
+                case "-generated" -> shipped = false;
+                case "-noimport" -> imports = false;
+                case "-nosearch" -> searches = false;
+                case CHILD -> child = true;
+                default -> {
+                    if(i + 1 >= args.length) {
+                        throw new IllegalArgumentException("Missing value for option: " + option);
+                    }
+                    String value = args[++i];
+                    try {
+                        switch(option) {
+                            case "-sizes" -> sizes = parseInts(value);
+                            case "-densities" -> densities = parseDoubles(value);
+                            case "-costs" -> costRanges = value.split(",");
+                            case "-files" -> files = value.split(",");
+                            case "-algorithms" -> algorithms = value.split(",");
+                            case "-warmup" -> warmup = Integer.parseInt(value);
+                            case "-iterations" -> iterations = Math.max(1, Integer.parseInt(value));
+                            case "-time" -> iterationTime = Long.parseLong(value);
+                            case "-forks" -> forks = Math.max(0, Integer.parseInt(value));
+                            case "-seed" -> seed = Long.parseLong(value);
+                            default -> throw new IllegalArgumentException("Unknown option: " + option);
+                        }
+                    }
+                    catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+                    }
+                }
+            }
+        }
+        for(String algorithm : algorithms) {
+            if(!List.of(ALGORITHMS).contains(algorithm)) {
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+            }
+        }
+        for(String costRange : costRanges) {
+            if(!costRange.matches("[0-9]+(-[0-9]+)?")) {
+                throw new IllegalArgumentException("Invalid cost range: " + costRange);
+            }
+        }
+    }
+
+    /**
+     * Method to parse a comma separated list of ints
+     * @param value is the given list
+     * @return parsed ints
+     */
+    private static int[] parseInts(String value) {
+        String[] parts = value.split(",");
+        int[] ints = new int[parts.length];
+        for(int i = 0; i < parts.length; i++) {
+            ints[i] = Integer.parseInt(parts[i].trim().replace("_", ""));
+        }
+        return ints;
+    }
+
+    /**
+     * Method to parse a comma separated list of doubles
+     * @param value is the given list
+     * @return parsed doubles
+     */
+    private static double[] parseDoubles(String value) {
+        String[] parts = value.split(",");
+        double[] doubles = new double[parts.length];
+        for(int i = 0; i < parts.length; i++) {
+            doubles[i] = Double.parseDouble(parts[i].trim());
+        }
+        return doubles;
+    }
+}
@@ -0,0 +1,120 @@
+package maze;
+
+/**
+ * Class - Cost grid held in a flat int array on the heap
+ */
+public class ArrayCostGrid implements CostGrid {
+    private static final String WALL = "_";
+
+    private final int height;
+    private final int width;
+    private final int[] costs;
+    private final int minCost;
+    private final int maxCost;
+
+    /**
+     * Constructor - Create a cost grid from a 2D String map ('_' for walls)
+     * @param map is the given 2D String Array storing the map
+     */
+    public ArrayCostGrid(String[][] map) {
+        this(map.length, map[0].length, parseCosts(map));
+    }
+
+    /**
+     * Constructor - Create a cost grid from a flat cost array
+     * @param height is the grid height
+     * @param width is the grid width
+     * @param costs is the flat cost array, walls stored as Maze.WALL_COST (Not copied)
+     */
+    public ArrayCostGrid(int height, int width, int[] costs) {
+        if(costs.length != height * width) {
+            throw new IllegalArgumentException("Cost array length " + costs.length + " does not match " + height + "x" + width);
+        }
+        this.height = height;
+        this.width = width;
+        this.costs = costs;
+        this.minCost = findMinCost(costs);
+        this.maxCost = findMaxCost(costs);
+    }
+
+    // *** Get Methods ***
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getCost(int index) {
+        return costs[index];
+    }
+
+    @Override
+    public int getMinCost() {
+        return minCost;
+    }
+
+    @Override
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    @Override
+    public int[] toArray() {
+        return costs.clone();
+    }
+
+    // *** Build Utilities ***
+
+    /**
+     * Method to parse a 2D String map into a flat cost array (Walls stored as WALL_COST)
+     * @param map is the given 2D String Array storing the map
+     * @return flat cost array of the map
+     */
+    private static int[] parseCosts(String[][] map) {
+        int height = map.length;
+        int width = map[0].length;
+        int[] costs = new int[height * width];
+
+        for(int i = 0; i < height; i++) {
+            for(int j = 0; j < width; j++) {
+                String tile = map[i][j];
+                costs[i * width + j] = tile.equalsIgnoreCase(WALL) ? Maze.WALL_COST : Integer.parseInt(tile);
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Method to find the smallest cost in a cost array (Ignoring walls)
+     * @param costs is the given cost array
+     * @return the smallest cost (0 if there are no open tiles)
+     */
+    private static int findMinCost(int[] costs) {
+        int min = Integer.MAX_VALUE;
+        for(int cost : costs) {
+            if(cost != Maze.WALL_COST) {
+                min = Math.min(min, cost);
+            }
+        }
+        return min == Integer.MAX_VALUE ? 0 : min;
+    }
+
+    /**
+     * Method to find the largest cost in a cost array (Ignoring walls)
+     * @param costs is the given cost array
+     * @return the largest cost (0 if there are no open tiles)
+     */
+    private static int findMaxCost(int[] costs) {
+        int max = 0;
+        for(int cost : costs) {
+            max = Math.max(max, cost);
+        }
+        return max;
+    }
+}
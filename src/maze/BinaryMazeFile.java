@@ -0,0 +1,142 @@
+package maze;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class - Reads and writes the binary maze format (.pfm)
+ *
+ * Layout (Big-Endian):
+ *      int magic ('PFMZ'), int version, int height, int width,
+ *      int cell width (Bytes per cell: 1, 2 or 4), int min cost, int max cost,
+ *      then height * width cells in row order, walls stored as all ones
+ *
+ * Files are opened with FileChannel.map, so the cells are read in place without parsing or copying
+ */
+public class BinaryMazeFile {
+    public static final String EXTENSION = ".pfm";
+    public static final int MAGIC = 0x50464D5A; // 'PFMZ'
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 7 * Integer.BYTES;
+
+    /**
+     * Method to return if a filename names a binary maze file
+     * @param filename is the given filename
+     * @return if the file has the binary maze extension
+     */
+    public static boolean isBinaryMazeFile(String filename) {
+        return filename.toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Method to map a binary maze file as a cost grid
+     * @param filepath is the path to the binary maze file
+     * @return cost grid reading the mapped file
+     * @throws IOException if the file cannot be read
+     */
+    public static MappedCostGrid map(String filepath) throws IOException {
+        try(FileChannel channel = FileChannel.open(Path.of(filepath), StandardOpenOption.READ)) {
+            if(channel.size() < HEADER_SIZE) {
+                throw new FileUtils.InvalidMazeException("Error: Binary maze file is too short for its header: " + filepath);
+            }
+            if(channel.size() > Integer.MAX_VALUE) {
+                throw new FileUtils.InvalidMazeException("Error: Binary maze file is larger than 2GB: " + filepath);
+            }
+
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            int magic = buffer.getInt(0);
+            int version = buffer.getInt(4);
+            int height = buffer.getInt(8);
+            int width = buffer.getInt(12);
+            int cellWidth = buffer.getInt(16);
+            int minCost = buffer.getInt(20);
+            int maxCost = buffer.getInt(24);
+
+            if(magic != MAGIC || version != VERSION) {
+                throw new FileUtils.InvalidMazeException("Error: Not a version " + VERSION + " binary maze file: " + filepath);
+            }
+            if(cellWidth != 1 && cellWidth != 2 && cellWidth != 4) {
+                throw new FileUtils.InvalidMazeException("Error: Invalid cell width " + cellWidth + ": " + filepath);
+            }
+            if(height <= 0 || width <= 0 || HEADER_SIZE + (long) height * width * cellWidth != channel.size()) {
+                throw new FileUtils.InvalidMazeException("Error: Size " + height + "x" + width + " does not match file length: " + filepath);
+            }
+            return new MappedCostGrid(buffer, height, width, cellWidth, minCost, maxCost);
+        }
+    }
+
+    /**
+     * Method to write a maze in the binary format, using the narrowest cell width that fits its costs
+     * @param maze is the given maze
+     * @param filepath is the path to write to
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Maze maze, String filepath) throws IOException {
+        int maxCost = maze.getMaxCost();
+        int cellWidth = maxCost < 0xFF ? 1 : maxCost < 0xFFFF ? 2 : 4;
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filepath), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(maze.getHeight());
+            out.writeInt(maze.getWidth());
+            out.writeInt(cellWidth);
+            out.writeInt(maze.getMinCost());
+            out.writeInt(maxCost);
+
+            for(int i = 0; i < maze.getSize(); i++) {
+                int cost = maze.isOpen(i) ? maze.getCost(i) : Maze.WALL_COST; // WALL_COST is all ones
+                switch (cellWidth) {
+                    case 1 -> out.writeByte(cost);
+                    case 2 -> out.writeShort(cost);
+                    default -> out.writeInt(cost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to convert a text maze file in the maze file directory into a binary maze file beside it
+     * @param filename is the given text maze filename
+     * @return filename of the written binary maze file
+     * @throws IOException if either file cannot be accessed
+     */
+    public static String convert(String filename) throws IOException {
+        CostGrid grid = FileUtils.importCostGrid(filename);
+        if(grid == null) {
+            throw new IOException("Failed to import file with given filename: " + filename);
+        }
+
+        int dot = filename.lastIndexOf('.');
+        String binaryName = (dot > 0 ? filename.substring(0, dot) : filename) + EXTENSION;
+        write(new Maze(grid), FileUtils.MAZE_DIR_PATH + binaryName);
+        return binaryName;
+    }
+
+    /**
+     * Method to convert text maze files from the command line
+     * @param args are the text maze filenames in the maze file directory
+     */
+    public static void main(String[] args) {
+        if(args.length == 0) {
+            System.out.println("Usage: java maze.BinaryMazeFile <maze file>...");
+            return;
+        }
+        for(String filename : args) {
+            try {
+                System.out.println(filename + " -> " + convert(filename));
+            }
+            catch (IOException e) {
+                System.err.println("Failed to convert " + filename + ": " + e.getMessage());
+            }
+        }
+    }
+}
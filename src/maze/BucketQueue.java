@@ -0,0 +1,178 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Class - Monotone priority queue of tile indexes for small non-negative integer keys (Dial's Algorithm)
+ * Keys are bucketed in a circular array of (maxCost + 1) buckets, giving O(1) push and amortized O(1) poll
+ * When maxCost is at most 1 the queue runs as a 0-1 BFS deque instead
+ *
+ * Pushed keys must never be smaller than the last polled key, or larger than it by more than maxCost
+ */
+public class BucketQueue {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxCost;
+    private final boolean zeroOne; // 0-1 BFS deque mode (maxCost <= 1)
+    private int size;
+    private int currentKey; // Key of the last polled tile
+
+    // Bucket Mode - bucket[key % bucketCount] holds the tile indexes with that key
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+
+    // Deque Mode - circular array of (index, key) pairs
+    private int[] deque;
+    private int head;
+
+    /**
+     * Constructor - Create an empty queue for keys that grow by at most maxCost per step
+     * @param maxCost is the largest tile cost in the maze
+     */
+    public BucketQueue(int maxCost) {
+        this.maxCost = maxCost;
+        zeroOne = maxCost <= 1;
+
+        if(zeroOne) {
+            buckets = null;
+            bucketSizes = null;
+            deque = new int[INITIAL_CAPACITY * 2];
+        }
+        else {
+            buckets = new int[maxCost + 1][INITIAL_CAPACITY];
+            bucketSizes = new int[maxCost + 1];
+        }
+    }
+
+    // *** Get Methods ***
+
+    /**
+     * Method to return if the queue is empty
+     * @return if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Method to get the largest tile cost the queue was sized for
+     * @return max cost
+     */
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    /**
+     * Method to get the key of the last polled tile index
+     * @return key of the last polled index
+     */
+    public int getCurrentKey() {
+        return currentKey;
+    }
+
+    /**
+     * Method to return if the queue is running as a 0-1 BFS deque
+     * @return if the queue is in deque mode
+     */
+    public boolean isZeroOne() {
+        return zeroOne;
+    }
+
+    // *** Queue Operations ***
+
+    /**
+     * Method to add a tile index with a given key
+     * @param index is the given tile index
+     * @param key is the given key (currentKey <= key <= currentKey + maxCost)
+     */
+    public void push(int index, int key) {
+        if(zeroOne) {
+            pushDeque(index, key);
+        }
+        else {
+            int bucket = key % buckets.length;
+            if(bucketSizes[bucket] == buckets[bucket].length) {
+                buckets[bucket] = Arrays.copyOf(buckets[bucket], buckets[bucket].length * 2);
+            }
+            buckets[bucket][bucketSizes[bucket]++] = index;
+        }
+        size++;
+    }
+
+    /**
+     * Method to remove and return a tile index with the smallest key
+     * @return tile index with the smallest key
+     */
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        size--;
+
+        // Deque Mode - front always holds the smallest key
+        if(zeroOne) {
+            int index = deque[head];
+            currentKey = deque[head + 1];
+            head = (head + 2) % deque.length;
+            return index;
+        }
+
+        // Bucket Mode - advance to the next non-empty bucket
+        int bucket = currentKey % buckets.length;
+        while(bucketSizes[bucket] == 0) {
+            currentKey++;
+            bucket = currentKey % buckets.length;
+        }
+        return buckets[bucket][--bucketSizes[bucket]];
+    }
+
+    /**
+     * Method to remove all tile indexes and restart keys from 0 (Keeps allocated capacity)
+     */
+    public void clear() {
+        if(!zeroOne) {
+            Arrays.fill(bucketSizes, 0);
+        }
+        size = 0;
+        head = 0;
+        currentKey = 0;
+    }
+
+    // *** Deque Utilities ***
+
+    /**
+     * Method to add an (index, key) pair to the deque
+     * Keys equal to the current key go to the front, larger keys to the back
+     * @param index is the given tile index
+     * @param key is the given key (currentKey or currentKey + 1)
+     */
+    private void pushDeque(int index, int key) {
+        if(size * 2 == deque.length) {
+            growDeque();
+        }
+
+        if(key == currentKey) {
+            head = (head - 2 + deque.length) % deque.length;
+            deque[head] = index;
+            deque[head + 1] = key;
+        }
+        else {
+            int tail = (head + size * 2) % deque.length;
+            deque[tail] = index;
+            deque[tail + 1] = key;
+        }
+    }
+
+    /**
+     * Method to double the deque capacity, unwrapping it to start at 0
+     */
+    private void growDeque() {
+        int[] grown = new int[deque.length * 2];
+        int firstPart = Math.min(size * 2, deque.length - head);
+        System.arraycopy(deque, head, grown, 0, firstPart);
+        System.arraycopy(deque, 0, grown, firstPart, size * 2 - firstPart);
+        deque = grown;
+        head = 0;
+    }
+}
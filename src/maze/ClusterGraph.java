@@ -0,0 +1,508 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Class - Abstract graph of a maze for Hierarchical Pathfinding (HPA*)
+ * The maze is split into square clusters of clusterSize tiles. Each run of open tile pairs across a
+ * cluster border gets one transition (Two at the ends of runs of ENTRANCE_SPLIT_LENGTH or more), whose
+ * two tiles become abstract nodes. Nodes in the same cluster are linked by the cost of the cheapest
+ * path between them inside the cluster, and the two tiles of a transition by the cost of stepping across
+ *
+ * Queries search the small abstract graph and then refine each abstract edge into tiles inside one cluster,
+ * so paths are near-optimal (Exact within a cluster, restricted to the chosen transitions across clusters)
+ * A ClusterGraph is immutable once built and is shared by every query on its maze (See Maze.getClusterGraph)
+ */
+public class ClusterGraph {
+    private static final int ENTRANCE_SPLIT_LENGTH = 6; // Border runs at least this long get a transition at each end
+    private static final int NO_PARENT = -1;
+    private static final int NO_TARGET = -1; // Search a whole cluster
+
+    private final Maze maze;
+    private final int clusterSize;
+    private final int clustersWide;
+
+    // Abstract Nodes - ids are grouped by cluster (Cluster c owns ids clusterStart[c] to clusterStart[c+1]-1)
+    private final int[] nodeTile; // Tile index of each abstract node
+    private final int[] clusterStart;
+
+    // Abstract Edges - outgoing edges of node u are edgeStart[u] to edgeStart[u+1]-1 (Directed, cost of entering tiles)
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+    private final int[] edgeCost;
+
+    /**
+     * Constructor - Build the abstract graph of a maze (Precomputes every entrance and intra-cluster cost)
+     * @param maze is the given maze
+     * @param clusterSize is the side length of each square cluster in tiles
+     */
+    public ClusterGraph(Maze maze, int clusterSize) {
+        if(clusterSize < 2) {
+            throw new IllegalArgumentException("Cluster size must be at least 2: " + clusterSize);
+        }
+        this.maze = maze;
+        this.clusterSize = clusterSize;
+        this.clustersWide = (maze.getWidth() + clusterSize - 1) / clusterSize;
+        int clustersHigh = (maze.getHeight() + clusterSize - 1) / clusterSize;
+        int clusterCount = clustersWide * clustersHigh;
+
+        // Find Transitions (Pairs of tiles on either side of a cluster border)
+        int[] transitions = findTransitions();
+        int transitionCount = transitions[0];
+
+        // Collect Entrance Tiles, grouped by cluster
+        int[] tiles = new int[transitionCount * 2];
+        for(int i = 0; i < transitionCount; i++) {
+            tiles[i * 2] = transitions[1 + i * 2];
+            tiles[i * 2 + 1] = transitions[2 + i * 2];
+        }
+        nodeTile = groupByCluster(tiles);
+
+        clusterStart = new int[clusterCount + 1];
+        for(int tile : nodeTile) {
+            clusterStart[getCluster(tile) + 1]++;
+        }
+        for(int c = 0; c < clusterCount; c++) {
+            clusterStart[c + 1] += clusterStart[c];
+        }
+
+        // Build Edges as (from, to, cost) triples
+        int[] edges = new int[64 * 3];
+        int edgeCount = 0;
+
+        // Inter-Cluster Edges (Across each transition, both ways)
+        for(int i = 0; i < transitionCount; i++) {
+            int a = getNodeId(transitions[1 + i * 2]);
+            int b = getNodeId(transitions[2 + i * 2]);
+            edges = ensureEdgeCapacity(edges, edgeCount + 2);
+            edgeCount = putEdge(edges, edgeCount, a, b, maze.getCost(nodeTile[b]));
+            edgeCount = putEdge(edges, edgeCount, b, a, maze.getCost(nodeTile[a]));
+        }
+
+        // Intra-Cluster Edges (Cheapest path inside the cluster between every pair of its nodes)
+        for(int c = 0; c < clusterCount; c++) {
+            for(int u = clusterStart[c]; u < clusterStart[c + 1]; u++) {
+                SearchWorkspace ws = searchCluster(nodeTile[u], c, false, NO_TARGET);
+                edges = ensureEdgeCapacity(edges, edgeCount + clusterStart[c + 1] - clusterStart[c]);
+                for(int v = clusterStart[c]; v < clusterStart[c + 1]; v++) {
+                    if(v != u && ws.isReached(nodeTile[v])) {
+                        edgeCount = putEdge(edges, edgeCount, u, v, ws.getCost(nodeTile[v]));
+                    }
+                }
+            }
+        }
+
+        // Pack Edges by Source Node
+        int nodeCount = nodeTile.length;
+        edgeStart = new int[nodeCount + 1];
+        edgeTarget = new int[edgeCount];
+        edgeCost = new int[edgeCount];
+        for(int e = 0; e < edgeCount; e++) {
+            edgeStart[edges[e * 3] + 1]++;
+        }
+        for(int u = 0; u < nodeCount; u++) {
+            edgeStart[u + 1] += edgeStart[u];
+        }
+        int[] next = Arrays.copyOf(edgeStart, nodeCount);
+        for(int e = 0; e < edgeCount; e++) {
+            int slot = next[edges[e * 3]]++;
+            edgeTarget[slot] = edges[e * 3 + 1];
+            edgeCost[slot] = edges[e * 3 + 2];
+        }
+    }
+
+    // *** Get Methods ***
+
+    /**
+     * Method to get the cluster side length
+     * @return cluster size in tiles
+     */
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    /**
+     * Method to get the number of abstract nodes (Entrance tiles)
+     * @return number of abstract nodes
+     */
+    public int getNodeCount() {
+        return nodeTile.length;
+    }
+
+    /**
+     * Method to get the number of directed abstract edges
+     * @return number of abstract edges
+     */
+    public int getEdgeCount() {
+        return edgeTarget.length;
+    }
+
+    /**
+     * Method to get the cluster holding the tile at a given index
+     * @param index is the given tile index
+     * @return cluster id
+     */
+    public int getCluster(int index) {
+        int width = maze.getWidth();
+        return (index / width / clusterSize) * clustersWide + (index % width) / clusterSize;
+    }
+
+    // *** Query ***
+
+    /**
+     * Method to find a path between two tiles through the abstract graph, refined to every tile
+     * Start and goal are linked to the nodes of their clusters, the abstract graph is searched with A*,
+     * then each abstract edge is expanded into the cheapest tile path inside its cluster
+     * @param start is the start tile index
+     * @param goal is the goal tile index
+     * @param trace is the trace to record expanded abstract nodes into (null to disable tracing)
+     * @return tile indexes of the path from start to goal (May repeat tiles), or null if there is no path
+     */
+    public int[] findPath(int start, int goal, SearchTrace trace) {
+        if(start == goal) {
+            return new int[]{start};
+        }
+        int startCluster = getCluster(start);
+        int goalCluster = getCluster(goal);
+
+        // Link Start to its Cluster (Cost from start to each node, and to the goal if they share a cluster)
+        SearchWorkspace ws = searchCluster(start, startCluster, false, NO_TARGET);
+        int[] startLinks = new int[clusterStart[startCluster + 1] - clusterStart[startCluster]];
+        for(int i = 0; i < startLinks.length; i++) {
+            startLinks[i] = ws.getCost(nodeTile[clusterStart[startCluster] + i]);
+        }
+        int direct = startCluster == goalCluster ? ws.getCost(goal) : Integer.MAX_VALUE;
+
+        // Link Goal to its Cluster (Cost from each node to the goal)
+        ws = searchCluster(goal, goalCluster, true, NO_TARGET);
+        int[] goalLinks = new int[clusterStart[goalCluster + 1] - clusterStart[goalCluster]];
+        for(int i = 0; i < goalLinks.length; i++) {
+            goalLinks[i] = ws.getCost(nodeTile[clusterStart[goalCluster] + i]);
+        }
+
+        // Search the Abstract Graph (Extra ids for the start and goal tiles)
+        int startId = nodeTile.length;
+        int goalId = startId + 1;
+        int[] parent = searchAbstract(start, goal, startCluster, goalCluster, startLinks, goalLinks, direct, trace);
+        if(parent == null) {
+            return null;
+        }
+
+        // Collect the Abstract Path (Goal -> Start)
+        int[] hops = new int[16];
+        int hopCount = 0;
+        for(int id = goalId; id != NO_PARENT; id = parent[id]) {
+            if(hopCount == hops.length) {
+                hops = Arrays.copyOf(hops, hopCount * 2);
+            }
+            hops[hopCount++] = id == startId ? start : id == goalId ? goal : nodeTile[id];
+        }
+
+        // Refine each Abstract Edge into Tiles (Start -> Goal)
+        int[] path = new int[64];
+        int length = 0;
+        path[length++] = start;
+        for(int h = hopCount - 1; h > 0; h--) {
+            int from = hops[h];
+            int to = hops[h - 1];
+
+            // Transition - one step across a cluster border
+            if(getCluster(from) != getCluster(to)) {
+                path = ensurePathCapacity(path, length + 1);
+                path[length++] = to;
+                continue;
+            }
+
+            // Inside one cluster - rebuild the cheapest path (to -> from), then append it reversed
+            ws = searchCluster(from, getCluster(from), false, to);
+            int segment = 0;
+            for(int cur = to; cur != from; cur = ws.getParent(cur)) {
+                segment++;
+            }
+            path = ensurePathCapacity(path, length + segment);
+            int cur = to;
+            for(int i = length + segment - 1; i >= length; i--) {
+                path[i] = cur;
+                cur = ws.getParent(cur);
+            }
+            length += segment;
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    /**
+     * Method to run A* over the abstract graph plus the start and goal tiles
+     * @param start is the start tile index
+     * @param goal is the goal tile index
+     * @param startCluster is the cluster of the start tile
+     * @param goalCluster is the cluster of the goal tile
+     * @param startLinks is the cost from the start to each node of its cluster (MAX_VALUE if unreachable)
+     * @param goalLinks is the cost from each node of the goal cluster to the goal (MAX_VALUE if unreachable)
+     * @param direct is the cost from start to goal inside their shared cluster (MAX_VALUE if none)
+     * @param trace is the trace to record expanded abstract nodes into (null to disable tracing)
+     * @return parent id of every reached abstract id (NO_PARENT for the start), or null if the goal is unreachable
+     */
+    private int[] searchAbstract(int start, int goal, int startCluster, int goalCluster,
+                                 int[] startLinks, int[] goalLinks, int direct, SearchTrace trace) {
+        int startId = nodeTile.length;
+        int goalId = startId + 1;
+        int minCost = maze.getMinCost();
+
+        SearchWorkspace ws = SearchWorkspace.acquire(1, nodeTile.length + 2);
+        IndexedMinHeap pQueue = ws.getHeap();
+        ws.reach(startId, 0, NO_PARENT);
+        pQueue.insertOrDecrease(startId, 0);
+
+        while(!pQueue.isEmpty()) {
+            int cur = pQueue.poll();
+            ws.visit(cur);
+
+            if(cur == goalId) {
+                return ws.parents();
+            }
+
+            // Record Expansion
+            int curTile = cur == startId ? start : nodeTile[cur];
+            if(trace != null) {
+                trace.onExpand(curTile);
+            }
+            int curCost = ws.getCost(cur);
+
+            if(cur == startId) {
+                // Start - edges to the nodes of its cluster and straight to the goal
+                for(int i = 0; i < startLinks.length; i++) {
+                    relax(ws, pQueue, cur, clusterStart[startCluster] + i, startLinks[i], goal, minCost);
+                }
+                relax(ws, pQueue, cur, goalId, direct, goal, minCost);
+                continue;
+            }
+
+            // Abstract Node - its edges, plus the goal if it shares the goal's cluster
+            for(int e = edgeStart[cur]; e < edgeStart[cur + 1]; e++) {
+                relax(ws, pQueue, cur, edgeTarget[e], edgeCost[e], goal, minCost);
+            }
+            if(getCluster(curTile) == goalCluster) {
+                relax(ws, pQueue, cur, goalId, goalLinks[cur - clusterStart[goalCluster]], goal, minCost);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to relax one abstract edge during the abstract A* search
+     * @param ws is the abstract search workspace
+     * @param pQueue is the abstract search priority queue
+     * @param cur is the abstract id being expanded
+     * @param next is the abstract id at the end of the edge
+     * @param cost is the edge cost (MAX_VALUE for no edge)
+     * @param goal is the goal tile index
+     * @param minCost is the smallest tile cost (Heuristic scale)
+     */
+    private void relax(SearchWorkspace ws, IndexedMinHeap pQueue, int cur, int next, int cost, int goal, int minCost) {
+        if(cost == Integer.MAX_VALUE || ws.isVisited(next)) {
+            return;
+        }
+        int newCost = ws.getCost(cur) + cost;
+        if(newCost < ws.getCost(next)) {
+            ws.reach(next, newCost, cur);
+
+            int nextTile = next >= nodeTile.length ? goal : nodeTile[next];
+            pQueue.insertOrDecrease(next, newCost + (long) minCost * maze.getManhattanDistance(nextTile, goal));
+        }
+    }
+
+    // *** Build Utilities ***
+
+    /**
+     * Method to run Dijkstra from a tile without leaving its cluster
+     * @param source is the given tile index
+     * @param cluster is the cluster of the source tile
+     * @param reverse is whether to find costs towards the source instead of away from it
+     * @param target is the tile to stop at once settled (NO_TARGET to search the whole cluster)
+     * @return workspace (Slot 0) with the cost and parent of every reached tile in the cluster
+     */
+    private SearchWorkspace searchCluster(int source, int cluster, boolean reverse, int target) {
+        SearchWorkspace ws = SearchWorkspace.acquire(maze.getSize());
+        IndexedMinHeap pQueue = ws.getHeap();
+        int[] neighbors = new int[4];
+
+        ws.reach(source, 0, NO_PARENT);
+        pQueue.insertOrDecrease(source, 0);
+
+        while(!pQueue.isEmpty()) {
+            int cur = pQueue.poll();
+            ws.visit(cur);
+            if(cur == target) {
+                break;
+            }
+
+            int count = maze.getNeighbors(cur, neighbors, false);
+            for(int i = 0; i < count; i++) {
+                int next = neighbors[i];
+                if(ws.isVisited(next) || getCluster(next) != cluster) {
+                    continue;
+                }
+
+                // Forward pays for entering next, reverse pays for entering cur from next
+                int newCost = ws.getCost(cur) + maze.getCost(reverse ? cur : next);
+                if(newCost < ws.getCost(next)) {
+                    ws.reach(next, newCost, cur);
+                    pQueue.insertOrDecrease(next, newCost);
+                }
+            }
+        }
+        return ws;
+    }
+
+    /**
+     * Method to find every transition across a cluster border
+     * Each maximal run of open tile pairs along one border gets a transition in its middle,
+     * or one at each end if the run is at least ENTRANCE_SPLIT_LENGTH long
+     * @return array of the transition count followed by (inside tile, outside tile) pairs
+     */
+    private int[] findTransitions() {
+        int height = maze.getHeight();
+        int width = maze.getWidth();
+        int[] transitions = new int[1 + 16];
+
+        // Horizontal Borders (Between rows row and row+1)
+        for(int row = clusterSize - 1; row < height - 1; row += clusterSize) {
+            int runStart = -1;
+            for(int col = 0; col <= width; col++) {
+                if(col < width && col % clusterSize == 0 && runStart != -1) {
+                    transitions = addRun(transitions, row * width + runStart, row * width + col - 1, 1, width);
+                    runStart = -1;
+                }
+                if(col < width && maze.isOpen(row * width + col) && maze.isOpen((row + 1) * width + col)) {
+                    if(runStart == -1) {
+                        runStart = col;
+                    }
+                }
+                else if(runStart != -1) {
+                    transitions = addRun(transitions, row * width + runStart, row * width + col - 1, 1, width);
+                    runStart = -1;
+                }
+            }
+        }
+
+        // Vertical Borders (Between cols col and col+1)
+        for(int col = clusterSize - 1; col < width - 1; col += clusterSize) {
+            int runStart = -1;
+            for(int row = 0; row <= height; row++) {
+                if(row < height && row % clusterSize == 0 && runStart != -1) {
+                    transitions = addRun(transitions, runStart * width + col, (row - 1) * width + col, width, 1);
+                    runStart = -1;
+                }
+                if(row < height && maze.isOpen(row * width + col) && maze.isOpen(row * width + col + 1)) {
+                    if(runStart == -1) {
+                        runStart = row;
+                    }
+                }
+                else if(runStart != -1) {
+                    transitions = addRun(transitions, runStart * width + col, (row - 1) * width + col, width, 1);
+                    runStart = -1;
+                }
+            }
+        }
+        return transitions;
+    }
+
+    /**
+     * Method to add the transitions for one run of open tile pairs along a border
+     * @param transitions is the transition array (Count followed by pairs)
+     * @param first is the first inside tile of the run
+     * @param last is the last inside tile of the run
+     * @param along is the index step along the border
+     * @param across is the index step from an inside tile to its outside tile
+     * @return the transition array (Grown if needed)
+     */
+    private static int[] addRun(int[] transitions, int first, int last, int along, int across) {
+        int length = (last - first) / along + 1;
+        int[] picks = length >= ENTRANCE_SPLIT_LENGTH ? new int[]{first, last} : new int[]{first + (length / 2) * along};
+
+        for(int tile : picks) {
+            int count = transitions[0];
+            if(1 + (count + 1) * 2 > transitions.length) {
+                transitions = Arrays.copyOf(transitions, transitions.length * 2);
+            }
+            transitions[1 + count * 2] = tile;
+            transitions[2 + count * 2] = tile + across;
+            transitions[0] = count + 1;
+        }
+        return transitions;
+    }
+
+    /**
+     * Method to remove duplicate tiles and order them by cluster, then by tile index
+     * @param tiles is the given array of tile indexes
+     * @return sorted array of distinct tile indexes
+     */
+    private int[] groupByCluster(int[] tiles) {
+        long[] keys = new long[tiles.length];
+        for(int i = 0; i < tiles.length; i++) {
+            keys[i] = (long) getCluster(tiles[i]) * maze.getSize() + tiles[i];
+        }
+        Arrays.sort(keys);
+
+        int[] grouped = new int[tiles.length];
+        int count = 0;
+        for(int i = 0; i < keys.length; i++) {
+            if(i == 0 || keys[i] != keys[i - 1]) {
+                grouped[count++] = (int) (keys[i] % maze.getSize());
+            }
+        }
+        return Arrays.copyOf(grouped, count);
+    }
+
+    /**
+     * Method to get the abstract node id of an entrance tile
+     * @param tile is the given entrance tile index
+     * @return abstract node id
+     */
+    private int getNodeId(int tile) {
+        int cluster = getCluster(tile);
+        return Arrays.binarySearch(nodeTile, clusterStart[cluster], clusterStart[cluster + 1], tile);
+    }
+
+    /**
+     * Method to store one edge triple
+     * @param edges is the edge array
+     * @param count is the number of stored edges
+     * @param from is the source node id
+     * @param to is the target node id
+     * @param cost is the edge cost
+     * @return the new number of stored edges
+     */
+    private static int putEdge(int[] edges, int count, int from, int to, int cost) {
+        edges[count * 3] = from;
+        edges[count * 3 + 1] = to;
+        edges[count * 3 + 2] = cost;
+        return count + 1;
+    }
+
+    /**
+     * Method to grow the edge array to hold a number of edges
+     * @param edges is the edge array
+     * @param count is the number of edges it must hold
+     * @return the edge array (Grown if needed)
+     */
+    private static int[] ensureEdgeCapacity(int[] edges, int count) {
+        if(count * 3 > edges.length) {
+            edges = Arrays.copyOf(edges, Math.max(count * 3, edges.length * 2));
+        }
+        return edges;
+    }
+
+    /**
+     * Method to grow the path array to hold a number of tiles
+     * @param path is the path array
+     * @param length is the number of tiles it must hold
+     * @return the path array (Grown if needed)
+     */
+    private static int[] ensurePathCapacity(int[] path, int length) {
+        if(length > path.length) {
+            path = Arrays.copyOf(path, Math.max(length, path.length * 2));
+        }
+        return path;
+    }
+}
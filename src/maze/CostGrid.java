@@ -0,0 +1,46 @@
+package maze;
+
+/**
+ * Interface - Read-only grid of tile costs addressed by flat index (row * width + col)
+ * Walls are stored as Maze.WALL_COST
+ * Implemented by an in-heap int array (ArrayCostGrid) and a memory-mapped binary maze file (MappedCostGrid)
+ */
+public interface CostGrid {
+
+    /**
+     * Method to get the number of rows
+     * @return grid height
+     */
+    int getHeight();
+
+    /**
+     * Method to get the number of columns
+     * @return grid width
+     */
+    int getWidth();
+
+    /**
+     * Method to get the raw cost of the tile at a given index
+     * @param index is the given tile index
+     * @return tile cost or Maze.WALL_COST for a wall
+     */
+    int getCost(int index);
+
+    /**
+     * Method to get the smallest cost of any open tile
+     * @return the smallest tile cost (0 if there are no open tiles)
+     */
+    int getMinCost();
+
+    /**
+     * Method to get the largest cost of any open tile
+     * @return the largest tile cost (0 if there are no open tiles)
+     */
+    int getMaxCost();
+
+    /**
+     * Method to copy every tile cost into a new flat array
+     * @return flat cost array (Walls stored as Maze.WALL_COST)
+     */
+    int[] toArray();
+}
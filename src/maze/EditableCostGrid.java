@@ -0,0 +1,201 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * Class - Cost grid that can be edited in place and published as read-only snapshots (Copy on write)
+ * Tiles are held in fixed-size int chunks. A snapshot shares every chunk with the grid; the first edit of a
+ * chunk after a snapshot copies only that chunk (And the chunk table once), so an edit then publish cycle
+ * costs O(size / CHUNK_SIZE + CHUNK_SIZE) instead of a copy of the whole grid
+ *
+ * The smallest and largest open tile costs are kept in a count of tiles per cost, so neither an edit
+ * nor a snapshot rescans the grid
+ *
+ * An EditableCostGrid is used by one thread at a time; its snapshots never change and can be shared
+ */
+class EditableCostGrid implements CostGrid {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int SMALL_COSTS = 1024; // Costs counted without boxing while copying the source
+
+    private final int height;
+    private final int width;
+    private final int size;
+    private int[][] chunks;
+    private final boolean[] owned; // Whether each chunk is held only by this grid (Not by a snapshot)
+    private boolean tableShared; // Whether the latest snapshot holds the chunk table
+    private final TreeMap<Integer, Integer> costCounts = new TreeMap<>(); // Open tiles of each cost
+    private CostGrid snapshot; // Latest snapshot (null after an edit)
+
+    /**
+     * Record - Read-only view of the chunks of an EditableCostGrid when it was published
+     * @param height is the grid height
+     * @param width is the grid width
+     * @param chunks is the chunk table (Never edited once published)
+     * @param minCost is the smallest open tile cost
+     * @param maxCost is the largest open tile cost
+     */
+    private record Snapshot(int height, int width, int[][] chunks, int minCost, int maxCost) implements CostGrid {
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getCost(int index) {
+            return chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int getMinCost() {
+            return minCost;
+        }
+
+        @Override
+        public int getMaxCost() {
+            return maxCost;
+        }
+
+        @Override
+        public int[] toArray() {
+            return copyChunks(chunks, height * width);
+        }
+    }
+
+    /**
+     * Constructor - Create an editable copy of a cost grid
+     * @param source is the grid to copy
+     */
+    EditableCostGrid(CostGrid source) {
+        this.height = source.getHeight();
+        this.width = source.getWidth();
+        this.size = height * width;
+
+        // Small costs are counted in an array first (No boxing per tile)
+        int[] smallCounts = new int[SMALL_COSTS];
+        int chunkCount = (size + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+        chunks = new int[chunkCount][];
+        owned = new boolean[chunkCount];
+        for(int c = 0; c < chunkCount; c++) {
+            int offset = c << CHUNK_BITS;
+            int[] chunk = new int[Math.min(CHUNK_SIZE, size - offset)];
+            for(int i = 0; i < chunk.length; i++) {
+                int cost = source.getCost(offset + i);
+                chunk[i] = cost;
+                if(cost >= 0 && cost < SMALL_COSTS) {
+                    smallCounts[cost]++;
+                }
+                else if(cost != Maze.WALL_COST) {
+                    costCounts.merge(cost, 1, Integer::sum);
+                }
+            }
+            chunks[c] = chunk;
+            owned[c] = true;
+        }
+        for(int cost = 0; cost < SMALL_COSTS; cost++) {
+            if(smallCounts[cost] > 0) {
+                costCounts.put(cost, smallCounts[cost]);
+            }
+        }
+    }
+
+    // *** Get Methods ***
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getCost(int index) {
+        return chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int getMinCost() {
+        return costCounts.isEmpty() ? 0 : costCounts.firstKey();
+    }
+
+    @Override
+    public int getMaxCost() {
+        return costCounts.isEmpty() ? 0 : costCounts.lastKey();
+    }
+
+    @Override
+    public int[] toArray() {
+        return copyChunks(chunks, size);
+    }
+
+    /**
+     * Method to get a read-only snapshot of the current costs (Later edits do not affect it)
+     * Repeated calls without an edit in between return the same snapshot
+     * @return snapshot of the grid
+     */
+    CostGrid snapshot() {
+        if(snapshot == null) {
+            snapshot = new Snapshot(height, width, chunks, getMinCost(), getMaxCost());
+            tableShared = true;
+            Arrays.fill(owned, false);
+        }
+        return snapshot;
+    }
+
+    // *** Editing ***
+
+    /**
+     * Method to change the cost of one tile, copying its chunk first if a snapshot holds it
+     * @param index is the given tile index
+     * @param cost is the new tile cost (Maze.WALL_COST for a wall)
+     */
+    void setCost(int index, int cost) {
+        int c = index >>> CHUNK_BITS;
+        int old = chunks[c][index & CHUNK_MASK];
+        if(old == cost) {
+            return;
+        }
+
+        if(tableShared) {
+            chunks = chunks.clone();
+            tableShared = false;
+        }
+        if(!owned[c]) {
+            chunks[c] = chunks[c].clone();
+            owned[c] = true;
+        }
+        chunks[c][index & CHUNK_MASK] = cost;
+        snapshot = null;
+
+        if(old != Maze.WALL_COST) {
+            costCounts.computeIfPresent(old, (k, count) -> count > 1 ? count - 1 : null);
+        }
+        if(cost != Maze.WALL_COST) {
+            costCounts.merge(cost, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Method to copy chunks into one flat array
+     * @param chunks is the chunk table
+     * @param size is the number of tiles
+     * @return flat cost array
+     */
+    private static int[] copyChunks(int[][] chunks, int size) {
+        int[] costs = new int[size];
+        for(int c = 0; c < chunks.length; c++) {
+            System.arraycopy(chunks[c], 0, costs, c << CHUNK_BITS, chunks[c].length);
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,92 @@
+package maze;
+
+import java.util.BitSet;
+
+/**
+ * Class - Read-only record of the tiles expanded by one search
+ * Stored compactly as an int array of tile indexes in expansion order plus a bitset for membership
+ * (About 4 bytes + 1 bit per expanded tile, instead of boxed Nodes in a List and a Set)
+ */
+public class ExpansionTrace {
+    public static final ExpansionTrace EMPTY = new ExpansionTrace(new int[0], 0, new BitSet(), 1);
+
+    private final int[] order; // Tile indexes in expansion order (Only the first size entries are used)
+    private final int size;
+    private final BitSet members;
+    private final int width;
+
+    /**
+     * Constructor - Create a trace over the first size entries of an expansion order
+     * @param order is the array of tile indexes in expansion order (The used prefix must never change)
+     * @param size is the number of expanded tiles
+     * @param members is the set of expanded tile indexes (Not copied)
+     * @param width is the width of the searched maze
+     */
+    ExpansionTrace(int[] order, int size, BitSet members, int width) {
+        this.order = order;
+        this.size = size;
+        this.members = members;
+        this.width = width;
+    }
+
+    // *** Get Methods ***
+
+    /**
+     * Method to get the number of expanded tiles
+     * @return number of expanded tiles
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method to get the tile index expanded at a given step
+     * @param i is the expansion step (0 to size-1)
+     * @return tile index expanded at step i
+     */
+    public int get(int i) {
+        if(i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Step " + i + " out of bounds for trace of size " + size);
+        }
+        return order[i];
+    }
+
+    /**
+     * Method to get the node expanded at a given step
+     * @param i is the expansion step (0 to size-1)
+     * @return node expanded at step i
+     */
+    public Node getNode(int i) {
+        int index = get(i);
+        return new Node(index / width, index % width);
+    }
+
+    /**
+     * Method to return if the tile at a given index was expanded
+     * @param index is the given tile index
+     * @return if the tile was expanded
+     */
+    public boolean contains(int index) {
+        return index >= 0 && members.get(index);
+    }
+
+    /**
+     * Method to get the memory held by the trace in ints (Order array plus member bits), used to weigh cache entries
+     * @return weight of the trace
+     */
+    long getWeight() {
+        return order.length + (long) members.size() / Integer.SIZE;
+    }
+
+    /**
+     * Method to return if a given node was expanded
+     * @param n is the given node
+     * @return if the node was expanded
+     */
+    public boolean contains(Node n) {
+        if(n.getY() < 0 || n.getY() >= width) {
+            return false;
+        }
+        return contains(n.getX() * width + n.getY());
+    }
+}
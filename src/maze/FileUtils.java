@@ -1,10 +1,10 @@
 package maze;
 
 import java.io.*;
+import java.util.Arrays;
 
 public class FileUtils {
     public static final String MAZE_DIR_PATH = "mazes/"; // Directory for Maze Files
-    private static final String WALL_CHAR = "_"; // Character used for a wall character
 
     /**
      * Method to import maze files with given filename and output a 2D String Array
@@ -12,48 +12,39 @@ public class FileUtils {
      * @return 2D String Array representation of the maze
      */
     public static String[][] importMazeFile(String filename) {
+        CostGrid grid = importCostGrid(filename);
+        return grid != null ? new Maze(grid).getMaze() : null;
+    }
 
-        String[][] maze;
-        try {
-            BufferedReader br = new BufferedReader(new FileReader(MAZE_DIR_PATH + filename));
-            String line;
-
-            // Create maze.Maze
-            line = br.readLine();
-            String[] size = line.split(",");
-            int height = Integer.parseInt(size[0]);
-            int width = Integer.parseInt(size[1]);
-            maze = new String[height][width];
-
-            // Read maze.Maze
-            for(int i = 0; i < height; i++) {
-                line = br.readLine();
-                String[] row = line.split(",");
-
-                for(int j = 0; j < width; j++) {
-                    String nodeInfo = row[j];
-
-                    // Check for invalid data in imported file
-                    if(!WhiskyUtils.isNumeric(nodeInfo) && !nodeInfo.equalsIgnoreCase(WALL_CHAR)) {
-                        throw new InvalidMazeException("Error: maze.Maze File Contains Invalid Data");
-                    }
-                    maze[i][j] = row[j];
-                }
+    /**
+     * Method to import a text or binary maze file as a grid of tile costs
+     * Text maze files are streamed into a primitive grid (See MazeFileParser),
+     * binary maze files (.pfm) are memory-mapped instead of parsed (See BinaryMazeFile)
+     * @param filename is the given filename for a file in the maze file directory
+     * @return cost grid of the maze or null if the file could not be read
+     */
+    public static CostGrid importCostGrid(String filename) {
+        if(BinaryMazeFile.isBinaryMazeFile(filename)) {
+            try {
+                return BinaryMazeFile.map(MAZE_DIR_PATH + filename);
             }
+            catch (IOException e) {
+                System.err.println("Failed to import file with given filename: " + filename);
+                return null;
+            }
+        }
 
-            br.close();
-
-            return maze;
+        try {
+            return MazeFileParser.parse(MAZE_DIR_PATH + filename);
         }
         catch (IOException e) {
             System.err.println("Failed to import file with given filename: " + filename);
+            return null;
         }
-
-        return null;
     }
 
     /**
-     * Method to get all filenames from the maze file directory
+     * Method to get all filenames from the maze file directory (Text and binary maze files, sorted by name)
      * @return all filenames in maze file directory
      */
     public static String[] getAllMazeFiles() {
@@ -67,6 +58,7 @@ public class FileUtils {
             for(int i = 0; i < filenames.length; i++) {
                 filenames[i] = files[i].getName(); // Add to Array
             }
+            Arrays.sort(filenames);
 
             return filenames;
         }
@@ -0,0 +1,276 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Class - Incremental shortest path planner using Lifelong Planning A* (LPA*)
+ * Keeps its search state (g, rhs and the open queue) between calls, so after tiles change
+ * only the tiles whose cost-to-come is affected are expanded again instead of searching from scratch
+ *
+ * Each tile holds g (Its cost-to-come when last expanded) and rhs (One step lookahead from its neighbors),
+ * and tiles where they differ are queued by min(g, rhs) + h
+ * The Heuristic is the Manhattan Distance scaled by the smallest tile weight, which stays consistent
+ * until an edit adds a cheaper tile (The planner then starts over)
+ *
+ * LPA* needs positive edge costs (Zero cost loops can keep each other's stale g alive), so in mazes
+ * with zero cost tiles each tile weighs cost * size + 1: still the cheapest path, fewest steps on ties
+ *
+ * Edits are made in place on the planner's own copy of the tile costs (See EditableCostGrid), so an update
+ * costs only the repair around the tile. A Maze of the costs is published only when asked for (getMaze, or a
+ * path from computePath) and shares the cost chunks; an edit after publishing copies only its chunk
+ *
+ * A planner is used by one thread at a time
+ */
+public class IncrementalPlanner {
+    private static final long INFINITE = Long.MAX_VALUE;
+    private static final int NO_PARENT = -1;
+
+    private final int height;
+    private final int width;
+    private final int start;
+    private final int goal;
+    private final int size;
+    private final EditableCostGrid costs; // Current tile costs, edited in place (Walls stored as Maze.WALL_COST)
+    private Maze snapshot; // Published maze of the current costs (null after an edit)
+    private long costScale; // Weight of a tile is cost * costScale + stepWeight
+    private long stepWeight;
+    private long minWeight; // Heuristic scale (Smallest tile weight when the state was last reset)
+
+    private final long[] g; // Weighted cost-to-come of each tile when last expanded
+    private final long[] rhs; // Weighted cost-to-come of each tile from its neighbors' g values
+    private final IndexedMinHeap open; // Inconsistent tiles (g != rhs)
+    private final int[] neighbors = new int[4];
+    private final int[] around = new int[4]; // Neighbor buffer of updateTile (Called while neighbors is in use)
+
+    /**
+     * Constructor - Create a planner between two tiles of a maze (No search is run until computePath)
+     * @param maze is the maze to plan through
+     * @param start is the start node
+     * @param goal is the goal node
+     */
+    public IncrementalPlanner(Maze maze, Node start, Node goal) {
+        this.height = maze.getHeight();
+        this.width = maze.getWidth();
+        this.start = maze.getIndex(start);
+        this.goal = maze.getIndex(goal);
+        this.size = maze.getSize();
+        this.costs = new EditableCostGrid(maze.getCostGrid());
+        this.snapshot = maze;
+
+        g = new long[maze.getSize()];
+        rhs = new long[maze.getSize()];
+        open = new IndexedMinHeap(maze.getSize());
+        reset();
+    }
+
+    // *** Get Methods ***
+
+    /**
+     * Method to get the current maze (Including every update so far)
+     * Publishes a snapshot of the costs if they changed since the last one (Later updates do not affect it)
+     * @return current maze
+     */
+    public Maze getMaze() {
+        if(snapshot == null) {
+            snapshot = new Maze(costs.snapshot());
+        }
+        return snapshot;
+    }
+
+    // *** Planning ***
+
+    /**
+     * Method to change one tile, marking only the tiles it affects as inconsistent
+     * @param n is the node of the tile to change
+     * @param cost is the new tile cost (Maze.WALL_COST for a wall)
+     */
+    public void updateTile(Node n, int cost) {
+        if(n.getX() < 0 || n.getX() >= height || n.getY() < 0 || n.getY() >= width) {
+            throw new IllegalArgumentException("Tile is outside the maze: " + n);
+        }
+        if(cost < 0 && cost != Maze.WALL_COST) {
+            throw new IllegalArgumentException("Tile cost must be non-negative or WALL_COST: " + cost);
+        }
+        int index = n.getX() * width + n.getY();
+        if(costs.getCost(index) == cost) {
+            return;
+        }
+        costs.setCost(index, cost); // The published maze keeps the old costs
+        snapshot = null;
+
+        // A cheaper tile breaks the heuristic - start over with new weights
+        if(cost != Maze.WALL_COST && cost * costScale + stepWeight < minWeight) {
+            reset();
+            return;
+        }
+
+        // The tile's own rhs depends on its cost, and its neighbors' rhs on whether it is open
+        updateTile(index);
+        int count = getNeighbors(index, neighbors);
+        for(int i = 0; i < count; i++) {
+            updateTile(neighbors[i]);
+        }
+    }
+
+    /**
+     * Method to repair the shortest path after any updates and return it
+     * Only inconsistent tiles that can affect the path to the goal are expanded
+     * @param trace is the trace to record the tiles expanded by this call into (null to disable tracing)
+     * @return a PathResult object with result (Optimal), or null if there is no path
+     */
+    public PathResult computePath(SearchTrace trace) {
+        // No path from a wall (Even to itself), as in the other algorithms
+        if(costs.getCost(start) == Maze.WALL_COST) {
+            return null;
+        }
+
+        while(!open.isEmpty() && (open.peekKey() <= getKey(goal) || rhs[goal] != g[goal])) {
+            int cur = open.poll();
+
+            // Record Expansion
+            if(trace != null) {
+                trace.onExpand(cur);
+            }
+
+            int count = getNeighbors(cur, neighbors);
+            if(g[cur] > rhs[cur]) {
+                // Overconsistent - settle the lower cost
+                g[cur] = rhs[cur];
+            }
+            else {
+                // Underconsistent - forget the old cost and re-derive it
+                g[cur] = INFINITE;
+                updateTile(cur);
+            }
+            for(int i = 0; i < count; i++) {
+                updateTile(neighbors[i]);
+            }
+        }
+
+        if(g[goal] == INFINITE) {
+            return null;
+        }
+        Maze maze = getMaze();
+        return PathAlgorithms.buildResult(maze.getNode(start), maze.getNode(goal), buildParents(), maze, trace);
+    }
+
+    // *** Planner Utilities ***
+
+    /**
+     * Method to clear all search state and queue the start again
+     */
+    private void reset() {
+        int minCost = costs.getMinCost();
+        costScale = minCost > 0 ? 1 : size;
+        stepWeight = minCost > 0 ? 0 : 1;
+        minWeight = minCost * costScale + stepWeight;
+        Arrays.fill(g, INFINITE);
+        Arrays.fill(rhs, INFINITE);
+        open.clear();
+
+        rhs[start] = 0;
+        open.insertOrDecrease(start, getKey(start));
+    }
+
+    /**
+     * Method to recompute the rhs of a tile and queue it only if it is inconsistent
+     * rhs is the tile's weight plus the smallest g of its open neighbors (Costs are paid on entering)
+     * @param index is the given tile index
+     */
+    private void updateTile(int index) {
+        if(index != start) {
+            long best = INFINITE;
+            if(costs.getCost(index) != Maze.WALL_COST) {
+                int count = getNeighbors(index, around);
+                for(int i = 0; i < count; i++) {
+                    best = Math.min(best, g[around[i]]);
+                }
+            }
+            rhs[index] = best == INFINITE ? INFINITE : best + getWeight(index);
+        }
+
+        if(g[index] == rhs[index]) {
+            if(open.contains(index)) {
+                open.remove(index);
+            }
+        }
+        else if(open.contains(index)) {
+            open.update(index, getKey(index));
+        }
+        else {
+            open.insertOrDecrease(index, getKey(index));
+        }
+    }
+
+    /**
+     * Method to get the queue key of a tile (min(g, rhs) + h)
+     * @param index is the given tile index
+     * @return queue key (INFINITE if the tile is unreached)
+     */
+    private long getKey(int index) {
+        long cost = Math.min(g[index], rhs[index]);
+        if(cost == INFINITE) {
+            return INFINITE;
+        }
+        return cost + minWeight * (Math.abs(index / width - goal / width) + Math.abs(index % width - goal % width));
+    }
+
+    /**
+     * Method to get the weight paid for entering the open tile at a given index
+     * @param index is the given tile index
+     * @return tile weight
+     */
+    private long getWeight(int index) {
+        return costs.getCost(index) * costScale + stepWeight;
+    }
+
+    /**
+     * Method to get the open neighbors of a tile in the current costs (N,S,E,W, not shuffled)
+     * @param index is the given tile index
+     * @param out is the array to write the neighbor indexes into (Length 4)
+     * @return number of neighbors written
+     */
+    private int getNeighbors(int index, int[] out) {
+        int count = 0;
+        int col = index % width;
+
+        if(index >= width && costs.getCost(index - width) != Maze.WALL_COST) {
+            out[count++] = index - width;
+        }
+        if(index < size - width && costs.getCost(index + width) != Maze.WALL_COST) {
+            out[count++] = index + width;
+        }
+        if(col < width - 1 && costs.getCost(index + 1) != Maze.WALL_COST) {
+            out[count++] = index + 1;
+        }
+        if(col > 0 && costs.getCost(index - 1) != Maze.WALL_COST) {
+            out[count++] = index - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Method to rebuild parents along a cheapest path by walking back from the goal
+     * Each step moves to a neighbor whose g plus the weight of the current tile gives the current g
+     * (Weights are positive, so g strictly falls and the walk always reaches the start)
+     * @return parent array for the path from start to goal
+     */
+    private int[] buildParents() {
+        SearchWorkspace ws = SearchWorkspace.acquire(1, size);
+
+        int cur = goal;
+        while(cur != start) {
+            int count = getNeighbors(cur, neighbors);
+            long target = g[cur] - getWeight(cur);
+            for(int i = 0; i < count; i++) {
+                if(g[neighbors[i]] == target) {
+                    ws.setParent(cur, neighbors[i]);
+                    break;
+                }
+            }
+            cur = ws.getParent(cur);
+        }
+        ws.setParent(start, NO_PARENT);
+        return ws.parents();
+    }
+}
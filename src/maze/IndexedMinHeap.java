@@ -0,0 +1,237 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Class - Binary min-heap of tile indexes ordered by a primitive key
+ * Each tile index is held at most once, and its key can be lowered in place (Decrease-Key)
+ */
+public class IndexedMinHeap {
+    private static final int NOT_IN_HEAP = -1;
+
+    private final int[] heap; // Tile indexes in heap order
+    private final long[] keys; // Key of each tile index
+    private final int[] position; // Position of each tile index in the heap (NOT_IN_HEAP if absent)
+    private int size;
+
+    /**
+     * Constructor - Create an empty heap for tile indexes in [0, capacity)
+     * @param capacity is the number of tile indexes (Maze size)
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new long[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, NOT_IN_HEAP);
+    }
+
+    // *** Get Methods ***
+
+    /**
+     * Method to return if the heap is empty
+     * @return if the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Method to get the number of tile indexes in the heap
+     * @return heap size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method to get the maximum tile index the heap can hold (Exclusive)
+     * @return heap capacity
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * Method to return if a tile index is currently in the heap
+     * @param index is the given tile index
+     * @return if the index is in the heap
+     */
+    public boolean contains(int index) {
+        return position[index] != NOT_IN_HEAP;
+    }
+
+    /**
+     * Method to get the current key of a tile index in the heap
+     * @param index is the given tile index (Must be in the heap)
+     * @return key of the index
+     */
+    public long getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Method to get the smallest key in the heap without removing it
+     * @return smallest key
+     */
+    public long peekKey() {
+        if(size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return keys[heap[0]];
+    }
+
+    // *** Heap Operations ***
+
+    /**
+     * Method to add a tile index, or lower its key if it is already in the heap
+     * A larger key for an index already in the heap is ignored
+     * @param index is the given tile index
+     * @param key is the given key
+     * @return if the heap was changed
+     */
+    public boolean insertOrDecrease(int index, long key) {
+        int pos = position[index];
+
+        // Insert
+        if(pos == NOT_IN_HEAP) {
+            keys[index] = key;
+            heap[size] = index;
+            position[index] = size;
+            siftUp(size++);
+            return true;
+        }
+
+        // Decrease-Key
+        if(key < keys[index]) {
+            keys[index] = key;
+            siftUp(pos);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Method to change the key of a tile index already in the heap in either direction
+     * @param index is the given tile index (Must be in the heap)
+     * @param key is the new key
+     */
+    public void update(int index, long key) {
+        long old = keys[index];
+        keys[index] = key;
+
+        if(key < old) {
+            siftUp(position[index]);
+        }
+        else {
+            siftDown(position[index]);
+        }
+    }
+
+    /**
+     * Method to remove and return the tile index with the smallest key
+     * @return tile index with the smallest key
+     */
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        int min = heap[0];
+        removeAt(0);
+        return min;
+    }
+
+    /**
+     * Method to remove a tile index from the heap if present
+     * @param index is the given tile index
+     */
+    public void remove(int index) {
+        int pos = position[index];
+        if(pos != NOT_IN_HEAP) {
+            removeAt(pos);
+        }
+    }
+
+    /**
+     * Method to remove all tile indexes from the heap (Cost is the current size only)
+     */
+    public void clear() {
+        for(int i = 0; i < size; i++) {
+            position[heap[i]] = NOT_IN_HEAP;
+        }
+        size = 0;
+    }
+
+    // *** Heap Utilities ***
+
+    /**
+     * Method to remove the tile index at a given heap position
+     * @param pos is the heap position
+     */
+    private void removeAt(int pos) {
+        int removed = heap[pos];
+        position[removed] = NOT_IN_HEAP;
+        size--;
+
+        if(pos == size) {
+            return;
+        }
+
+        // Move last element into the gap and restore heap order
+        int last = heap[size];
+        heap[pos] = last;
+        position[last] = pos;
+        siftDown(pos);
+        siftUp(position[last]);
+    }
+
+    /**
+     * Method to move the element at a heap position up until its parent is smaller
+     * @param pos is the heap position
+     */
+    private void siftUp(int pos) {
+        int index = heap[pos];
+        long key = keys[index];
+
+        while(pos > 0) {
+            int parentPos = (pos - 1) >>> 1;
+            int parent = heap[parentPos];
+            if(keys[parent] <= key) {
+                break;
+            }
+            heap[pos] = parent;
+            position[parent] = pos;
+            pos = parentPos;
+        }
+        heap[pos] = index;
+        position[index] = pos;
+    }
+
+    /**
+     * Method to move the element at a heap position down until its children are larger
+     * @param pos is the heap position
+     */
+    private void siftDown(int pos) {
+        int index = heap[pos];
+        long key = keys[index];
+        int half = size >>> 1;
+
+        while(pos < half) {
+            int childPos = 2 * pos + 1;
+            int child = heap[childPos];
+            int rightPos = childPos + 1;
+            if(rightPos < size && keys[heap[rightPos]] < keys[child]) {
+                childPos = rightPos;
+                child = heap[childPos];
+            }
+            if(key <= keys[child]) {
+                break;
+            }
+            heap[pos] = child;
+            position[child] = pos;
+            pos = childPos;
+        }
+        heap[pos] = index;
+        position[index] = pos;
+    }
+}
@@ -0,0 +1,271 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Class - Landmark distance table for the ALT (A*, Landmarks, Triangle inequality) heuristic
+ * A few landmark tiles are chosen far apart and a full Dijkstra is run to and from each of them.
+ * For any tile v and goal g, the triangle inequality then gives admissible lower bounds on cost(v, g):
+ *      cost(L, g) - cost(L, v)     and     cost(v, L) - cost(g, L)
+ * Costs are directed (The cost of a tile is paid on entering it), so both directions are stored
+ *
+ * Distances are stored tile-major (All landmarks of one tile are adjacent) in two int arrays
+ * A LandmarkTable is immutable once built and is shared by every query on its maze (See Maze.getLandmarks)
+ *
+ * Each table holds at most MAX_TABLE_SIZE entries (tiles x landmarks, 64MB), so large mazes get fewer
+ * landmarks, and mazes of more than MAX_TABLE_SIZE tiles get none (ALT falls back to the A* heuristic)
+ */
+public class LandmarkTable {
+    public static final int MAX_TABLE_SIZE = 1 << 24; // Largest number of entries (tiles x landmarks) of one table
+
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final Maze maze;
+    private final int[] landmarks; // Tile index of each landmark
+    private final int count;
+
+    private final int[] fromLandmark; // fromLandmark[v * count + l] = cost(landmark l, v)
+    private final int[] toLandmark; // toLandmark[v * count + l] = cost(v, landmark l)
+
+    /**
+     * Constructor - Choose landmarks and compute their distance tables (Two full Dijkstras per landmark)
+     * Landmarks are shared out between connected regions by region size (Single tiles get none), and within
+     * a region each landmark is the tile farthest from the region's landmarks chosen before it
+     * @param maze is the given maze
+     * @param count is the number of landmarks to choose (At most getMaxLandmarks of the maze size)
+     */
+    public LandmarkTable(Maze maze, int count) {
+        if(count < 1) {
+            throw new IllegalArgumentException("Landmark count must be at least 1: " + count);
+        }
+        int size = maze.getSize();
+        if(count > getMaxLandmarks(size)) {
+            throw new IllegalArgumentException(String.format("%d landmarks of a %d tile maze exceed the table limit of %d entries",
+                    count, size, MAX_TABLE_SIZE));
+        }
+        this.maze = maze;
+
+        // Distance of each tile from its closest chosen landmark
+        int[] nearest = new int[size];
+        Arrays.fill(nearest, UNREACHED);
+
+        int[] allotted = allotLandmarks(count);
+        int[] landmarkList = new int[count];
+        int chosen = 0;
+        int[] from = new int[size * count]; // Fits an int (At most MAX_TABLE_SIZE)
+        int[] to = new int[size * count];
+        int[] seed = new int[size];
+
+        for(int component = 0; component < allotted.length; component++) {
+            if(allotted[component] == 0) {
+                continue;
+            }
+
+            // Seed - the tile of the region farthest from its first tile
+            int first = 0;
+            while(maze.getComponent(first) != component) {
+                first++;
+            }
+            dijkstra(first, false, seed, 1, 0);
+            int next = farthest(seed, component, first);
+
+            for(int i = 0; i < allotted[component] && next != -1; i++) {
+                landmarkList[chosen] = next;
+                dijkstra(next, false, from, count, chosen);
+                dijkstra(next, true, to, count, chosen);
+
+                // Track each tile's distance to its closest landmark (Only the region is reached)
+                for(int v = 0; v < size; v++) {
+                    int dist = from[v * count + chosen];
+                    if(dist != UNREACHED && (nearest[v] == UNREACHED || dist < nearest[v])) {
+                        nearest[v] = dist;
+                    }
+                }
+                nearest[next] = 0;
+                chosen++;
+                next = farthest(nearest, component, -1);
+            }
+        }
+
+        // Drop table columns of landmarks that were never chosen (Too few tiles in regions of more than one)
+        this.count = chosen;
+        this.landmarks = Arrays.copyOf(landmarkList, chosen);
+        if(chosen < count) {
+            this.fromLandmark = compact(from, size, count, chosen);
+            this.toLandmark = compact(to, size, count, chosen);
+        }
+        else {
+            this.fromLandmark = from;
+            this.toLandmark = to;
+        }
+    }
+
+    // *** Get Methods ***
+
+    /**
+     * Method to get the largest landmark count whose tables fit MAX_TABLE_SIZE for a maze size
+     * @param size is the number of tiles in the maze
+     * @return largest landmark count (0 if the maze is too large for landmark tables)
+     */
+    public static int getMaxLandmarks(int size) {
+        return MAX_TABLE_SIZE / Math.max(1, size);
+    }
+
+    /**
+     * Method to get the number of landmarks
+     * @return number of landmarks
+     */
+    public int getLandmarkCount() {
+        return count;
+    }
+
+    /**
+     * Method to get the tile index of a landmark
+     * @param l is the landmark number (0 to count-1)
+     * @return tile index of the landmark
+     */
+    public int getLandmark(int l) {
+        return landmarks[l];
+    }
+
+    /**
+     * Method to get a lower bound on the cost of the cheapest path between two tiles
+     * The largest landmark bound, never less than the Manhattan Distance scaled by the smallest tile cost
+     * @param index is the given tile index
+     * @param goal is the goal tile index
+     * @return admissible and consistent estimate of the cost from index to goal
+     */
+    public int getLowerBound(int index, int goal) {
+        int best = maze.getMinCost() * maze.getManhattanDistance(index, goal);
+
+        int v = index * count;
+        int g = goal * count;
+        for(int l = 0; l < count; l++) {
+            int landmarkToV = fromLandmark[v + l];
+            int landmarkToGoal = fromLandmark[g + l];
+            if(landmarkToV == UNREACHED || landmarkToGoal == UNREACHED) {
+                continue; // Landmark in another region
+            }
+            best = Math.max(best, landmarkToGoal - landmarkToV);
+            best = Math.max(best, toLandmark[v + l] - toLandmark[g + l]);
+        }
+        return best;
+    }
+
+    // *** Build Utilities ***
+
+    /**
+     * Method to run a full Dijkstra from (or towards) a tile, writing costs into one table column
+     * @param source is the landmark tile index
+     * @param reverse is whether to find costs towards the source instead of away from it
+     * @param table is the distance table to fill
+     * @param stride is the number of columns in the table
+     * @param column is the column to fill
+     */
+    private void dijkstra(int source, boolean reverse, int[] table, int stride, int column) {
+        SearchWorkspace ws = SearchWorkspace.acquire(maze.getSize());
+        IndexedMinHeap pQueue = ws.getHeap();
+        int[] neighbors = new int[4];
+
+        ws.reach(source, 0, -1);
+        pQueue.insertOrDecrease(source, 0);
+
+        while(!pQueue.isEmpty()) {
+            int cur = pQueue.poll();
+            ws.visit(cur);
+
+            int count = maze.getNeighbors(cur, neighbors, false);
+            for(int i = 0; i < count; i++) {
+                int next = neighbors[i];
+                if(ws.isVisited(next)) {
+                    continue;
+                }
+
+                // Forward pays for entering next, reverse pays for entering cur from next
+                int newCost = ws.getCost(cur) + maze.getCost(reverse ? cur : next);
+                if(newCost < ws.getCost(next)) {
+                    ws.reach(next, newCost, cur);
+                    pQueue.insertOrDecrease(next, newCost);
+                }
+            }
+        }
+
+        for(int v = 0; v < maze.getSize(); v++) {
+            table[v * stride + column] = ws.getCost(v);
+        }
+    }
+
+    /**
+     * Method to share landmarks out between the connected regions of the maze by region size
+     * Each landmark goes to the region with the most tiles per landmark so far; single tiles get none
+     * (Every query in them is trivial) and no region gets more landmarks than tiles
+     * @param count is the number of landmarks to share out
+     * @return number of landmarks of each region (By component label, may total less than count)
+     */
+    private int[] allotLandmarks(int count) {
+        int[] regionSizes = new int[maze.getComponentCount()];
+        for(int v = 0; v < maze.getSize(); v++) {
+            int component = maze.getComponent(v);
+            if(component != Maze.NO_COMPONENT) {
+                regionSizes[component]++;
+            }
+        }
+
+        int[] allotted = new int[regionSizes.length];
+        for(int i = 0; i < count; i++) {
+            int best = -1;
+            for(int c = 0; c < regionSizes.length; c++) {
+                if(regionSizes[c] < 2 || allotted[c] >= regionSizes[c]) {
+                    continue;
+                }
+                // regionSizes[c] / (allotted[c] + 1) > regionSizes[best] / (allotted[best] + 1)
+                if(best == -1 || (long) regionSizes[c] * (allotted[best] + 1) > (long) regionSizes[best] * (allotted[c] + 1)) {
+                    best = c;
+                }
+            }
+            if(best == -1) {
+                break;
+            }
+            allotted[best]++;
+        }
+        return allotted;
+    }
+
+    /**
+     * Method to find the tile of a region with the largest distance (Unreached tiles are never picked)
+     * @param dist is the distance of each tile
+     * @param component is the component label of the region
+     * @param exclude is a tile that may not be picked (-1 for none)
+     * @return index of the farthest tile, or -1 if every reached tile of the region has distance 0
+     */
+    private int farthest(int[] dist, int component, int exclude) {
+        int best = -1;
+        int bestDist = 0;
+        for(int v = 0; v < dist.length; v++) {
+            if(v == exclude || dist[v] == UNREACHED || maze.getComponent(v) != component) {
+                continue;
+            }
+            if(dist[v] > bestDist) {
+                best = v;
+                bestDist = dist[v];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Method to copy the first columns of a tile-major table into a narrower table
+     * @param table is the given table
+     * @param size is the number of tiles
+     * @param stride is the current number of columns
+     * @param columns is the number of columns to keep
+     * @return narrower table
+     */
+    private static int[] compact(int[] table, int size, int stride, int columns) {
+        int[] compacted = new int[size * columns];
+        for(int v = 0; v < size; v++) {
+            System.arraycopy(table, v * stride, compacted, v * columns, columns);
+        }
+        return compacted;
+    }
+}
@@ -0,0 +1,93 @@
+package maze;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Class - Cost grid read straight from a memory-mapped binary maze file (See BinaryMazeFile)
+ * Cells are never copied onto the heap, the operating system pages them in as they are read
+ */
+public class MappedCostGrid implements CostGrid {
+    private final MappedByteBuffer buffer;
+    private final int height;
+    private final int width;
+    private final int cellWidth; // Bytes per cell (1, 2 or 4)
+    private final int minCost;
+    private final int maxCost;
+
+    /**
+     * Constructor - Create a cost grid over the cells of a mapped binary maze file
+     * @param buffer is the mapped file (Cells start at BinaryMazeFile.HEADER_SIZE)
+     * @param height is the grid height
+     * @param width is the grid width
+     * @param cellWidth is the number of bytes per cell (1, 2 or 4)
+     * @param minCost is the smallest cost of any open tile
+     * @param maxCost is the largest cost of any open tile
+     */
+    MappedCostGrid(MappedByteBuffer buffer, int height, int width, int cellWidth, int minCost, int maxCost) {
+        this.buffer = buffer;
+        this.height = height;
+        this.width = width;
+        this.cellWidth = cellWidth;
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+    }
+
+    // *** Get Methods ***
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getCost(int index) {
+        int offset = BinaryMazeFile.HEADER_SIZE + index * cellWidth;
+
+        // Walls are stored as all ones (Which is already WALL_COST for 4 byte cells)
+        switch (cellWidth) {
+            case 1 -> {
+                int cost = buffer.get(offset) & 0xFF;
+                return cost == 0xFF ? Maze.WALL_COST : cost;
+            }
+            case 2 -> {
+                int cost = buffer.getShort(offset) & 0xFFFF;
+                return cost == 0xFFFF ? Maze.WALL_COST : cost;
+            }
+            default -> {
+                return buffer.getInt(offset);
+            }
+        }
+    }
+
+    @Override
+    public int getMinCost() {
+        return minCost;
+    }
+
+    @Override
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    /**
+     * Method to get the number of bytes stored per cell
+     * @return cell width (1, 2 or 4)
+     */
+    public int getCellWidth() {
+        return cellWidth;
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] costs = new int[height * width];
+        for(int i = 0; i < costs.length; i++) {
+            costs[i] = getCost(i);
+        }
+        return costs;
+    }
+}
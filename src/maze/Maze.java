@@ -1,39 +1,104 @@
 package maze;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedList;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class to store a maze.Maze Object with useful functions for pathfinding
+ * Tiles are stored in a CostGrid addressed by index (row * width + col), either a flat primitive
+ * array on the heap or a memory-mapped binary maze file
+ *
+ * A Maze is immutable and holds no per-search state, so one instance can be searched by many threads at once
+ * (Expanded nodes are recorded in a SearchTrace given to each search)
  */
 public class Maze {
     private static final String WALL = "_";
-    private final String[][] map;
+    public static final int WALL_COST = -1; // Sentinel cost stored for wall tiles
+    public static final int NO_COMPONENT = -1; // Component label of wall tiles
 
-    // Expanded Nodes
-    private LinkedList<Node> expandedOrder;
-    private HashSet<Node> expanded;
+    private static final AtomicLong NEXT_VERSION = new AtomicLong();
+
+    private final int height;
+    private final int width;
+    private final int size;
+    private final CostGrid costs;
+    private final int minCost;
+    private final int maxCost;
+    private final long version = NEXT_VERSION.incrementAndGet(); // Unique per instance (Mazes never change)
+
+    // Lazily built String view of the maze (Compatibility only)
+    private volatile String[][] map;
+
+    // Lazily built connected component label of each tile (NO_COMPONENT for walls)
+    private volatile int[] components;
+    private int componentCount; // Written before components is published
+
+    // Lazily built HPA* abstractions, one per cluster size (Shared by every query on this maze)
+    private final ConcurrentHashMap<Integer, ClusterGraph> clusterGraphs = new ConcurrentHashMap<>();
+
+    // Lazily built ALT landmark tables, one per landmark count
+    private final ConcurrentHashMap<Integer, LandmarkTable> landmarkTables = new ConcurrentHashMap<>();
 
     /**
      * Constructor - Create a new maze.Maze Object with the given 2D maze.Maze Map
      * @param map is the given 2D String Array storing the map
      */
     public Maze(String[][] map) {
-        this.map = map;
-
-        resetExpanded();
+        this(new ArrayCostGrid(map));
     }
 
     /**
      * Constructor - Create a new maze.Maze Object with the given filepath to a maze file
-     * @param filepath is the given path to a maze file
+     * @param filepath is the given path to a text or binary maze file
      */
     public Maze(String filepath) {
-        this.map = FileUtils.importMazeFile(filepath);
+        this(FileUtils.importCostGrid(filepath));
+    }
 
-        resetExpanded();
+    /**
+     * Constructor - Create a new maze.Maze Object over a grid of tile costs
+     * @param costs is the given cost grid (Walls stored as WALL_COST)
+     */
+    public Maze(CostGrid costs) {
+        this.height = costs.getHeight();
+        this.width = costs.getWidth();
+        this.size = height * width;
+        this.costs = costs;
+        this.minCost = costs.getMinCost();
+        this.maxCost = costs.getMaxCost();
+    }
+
+    /**
+     * Method to get a copy of the maze with one tile changed (Mazes are immutable)
+     * Copies the whole grid, so repeated edits should go through an IncrementalPlanner instead
+     * @param n is the node of the tile to change
+     * @param cost is the new tile cost (WALL_COST for a wall)
+     * @return new maze with the changed tile
+     */
+    public Maze withTile(Node n, int cost) {
+        if(!isValidNode(n)) {
+            throw new IllegalArgumentException("Tile is outside the maze: " + n);
+        }
+        if(cost < 0 && cost != WALL_COST) {
+            throw new IllegalArgumentException("Tile cost must be non-negative or WALL_COST: " + cost);
+        }
+        int[] changed = costs.toArray(); // A mapped maze is copied onto the heap on its first edit
+        changed[getIndex(n)] = cost;
+        Maze edited = new Maze(new ArrayCostGrid(height, width, changed));
+
+        // Share the String view if built, copying only the changed row
+        String[][] view = map;
+        if(view != null) {
+            String[][] editedView = view.clone();
+            editedView[n.getX()] = view[n.getX()].clone();
+            editedView[n.getX()][n.getY()] = edited.getTileStr(n);
+            edited.map = editedView;
+        }
+        return edited;
     }
     // *** Booleans ***
 
@@ -43,7 +108,7 @@ public class Maze {
      * @return if the node is valid
      */
     public boolean isValidNode(Node n) {
-        return (n.getX() >= 0 && n.getX() < getHeight()) && (n.getY() >= 0 && n.getY() < getWidth());
+        return (n.getX() >= 0 && n.getX() < height) && (n.getY() >= 0 && n.getY() < width);
     }
 
     /**
@@ -53,7 +118,7 @@ public class Maze {
      */
     public boolean isWall(Node n) {
         if(isValidNode(n)) {
-            return getTileStr(n).equalsIgnoreCase(WALL);
+            return costs.getCost(getIndex(n)) == WALL_COST;
         }
         return false;
     }
@@ -65,35 +130,39 @@ public class Maze {
      */
     public boolean isOpen(Node n) {
         if(isValidNode(n)) {
-            return WhiskyUtils.isNumeric(getTileStr(n));
+            return costs.getCost(getIndex(n)) != WALL_COST;
         }
         return false;
     }
 
-    // *** Get Methods ***
-
     /**
-     * Method to return the 2D String Array storing the maze
-     * @return 2D String array of maze
+     * Method to return if the tile at a given index is open (Not a wall)
+     * @param index is the given tile index (Must be in the maze)
+     * @return if the tile is open
      */
-    public String[][] getMaze() {
-        return map;
+    public boolean isOpen(int index) {
+        return costs.getCost(index) != WALL_COST;
     }
 
-    /**
-     * Method to return the current maze.Node Expanded Order
-     * @return the current Expanded Order
-     */
-    public LinkedList<Node> getExpandedOrder() {
-        return expandedOrder;
-    }
+    // *** Get Methods ***
 
     /**
-     * Method to return the set of all expanded nodes
-     * @return set of all expanded nodes
+     * Method to return the 2D String Array storing the maze
+     * (Built on first use from the cost grid, kept for compatibility)
+     * @return 2D String array of maze
      */
-    public HashSet<Node> getExpanded() {
-        return expanded;
+    public String[][] getMaze() {
+        String[][] view = map;
+        if(view == null) {
+            view = new String[height][width];
+            for(int i = 0; i < height; i++) {
+                for(int j = 0; j < width; j++) {
+                    view[i][j] = getTileStr(i * width + j);
+                }
+            }
+            map = view;
+        }
+        return view;
     }
 
     /**
@@ -102,7 +171,17 @@ public class Maze {
      * @return the String at point
      */
     public String getTileStr(Node n) {
-        return map[n.getX()][n.getY()];
+        return getTileStr(getIndex(n));
+    }
+
+    /**
+     * Method to get the String of the tile at a given index
+     * @param index is the given tile index
+     * @return the String of the tile ('_' for walls)
+     */
+    public String getTileStr(int index) {
+        int cost = costs.getCost(index);
+        return cost == WALL_COST ? WALL : Integer.toString(cost);
     }
 
     /**
@@ -110,7 +189,7 @@ public class Maze {
      * @return board height
      */
     public int getHeight() {
-        return map.length;
+        return height;
     }
 
     /**
@@ -118,7 +197,33 @@ public class Maze {
      * @return board width
      */
     public int getWidth() {
-        return map[0].length;
+        return width;
+    }
+
+    /**
+     * Method to get the flat index of a node (row * width + col)
+     * @param n is the given node
+     * @return flat index of the node
+     */
+    public int getIndex(Node n) {
+        return n.getX() * width + n.getY();
+    }
+
+    /**
+     * Method to get the node at a given flat index
+     * @param index is the given flat index
+     * @return node at the index (Without a direction)
+     */
+    public Node getNode(int index) {
+        return new Node(index / width, index % width);
+    }
+
+    /**
+     * Method to get the total number of tiles in the maze
+     * @return number of tiles (height * width)
+     */
+    public int getSize() {
+        return size;
     }
 
     /**
@@ -127,39 +232,125 @@ public class Maze {
      * @return the costHeuristic at point or default 0 if point is a wall (Ensure no given point is a wall)
      */
     public int getCost(Node n) {
-        String s = getTileStr(n);
+        return getCost(getIndex(n));
+    }
 
-        if(isWall(n)) {
-            return 0;
-        }
-        return Integer.parseInt(s);
+    /**
+     * Method to get the cost of the tile at a given index
+     * @param index is the given tile index
+     * @return the cost of the tile or default 0 if the tile is a wall
+     */
+    public int getCost(int index) {
+        int cost = costs.getCost(index);
+        return cost == WALL_COST ? 0 : cost;
     }
 
-    // *** Utility Methods ***
+    /**
+     * Method to get the read-only cost grid of the maze
+     * @return cost grid (Walls stored as WALL_COST)
+     */
+    CostGrid getCostGrid() {
+        return costs;
+    }
+
+    /**
+     * Method to get the version of the maze, used to key cached results
+     * Every Maze instance has a different version, so any changed maze is a new version
+     * @return maze version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Method to get the smallest cost of any open tile
+     * @return the smallest tile cost (0 if the maze has no open tiles)
+     */
+    public int getMinCost() {
+        return minCost;
+    }
 
     /**
-     * Method to reset the current expanded order
+     * Method to get the largest cost of any open tile
+     * @return the largest tile cost (0 if the maze has no open tiles)
      */
-    public void resetExpanded() {
-        expandedOrder = new LinkedList<>();
-        expanded = new HashSet<>();
+    public int getMaxCost() {
+        return maxCost;
     }
 
+    /**
+     * Method to get the connected component label of the tile at a given index
+     * Open tiles share a label exactly when a path exists between them
+     * @param index is the given tile index
+     * @return component label (0 to getComponentCount()-1) or NO_COMPONENT for a wall
+     */
+    public int getComponent(int index) {
+        return getComponents()[index];
+    }
+
+    /**
+     * Method to get the connected component label of a node
+     * @param n is the given node
+     * @return component label or NO_COMPONENT for a wall or a node outside the maze
+     */
+    public int getComponent(Node n) {
+        return isValidNode(n) ? getComponent(getIndex(n)) : NO_COMPONENT;
+    }
+
+    /**
+     * Method to get the number of connected components of open tiles
+     * @return number of components
+     */
+    public int getComponentCount() {
+        getComponents();
+        return componentCount;
+    }
+
+    /**
+     * Method to return if a path exists between two nodes - O(1) once the labels are built
+     * @param a is the first node
+     * @param b is the second node
+     * @return if both nodes are open and in the same component
+     */
+    public boolean isConnected(Node a, Node b) {
+        int component = getComponent(a);
+        return component != NO_COMPONENT && component == getComponent(b);
+    }
+
+    /**
+     * Method to get the HPA* cluster abstraction of the maze for a given cluster size
+     * (Built on first use, then reused by every later query)
+     * @param clusterSize is the side length of each square cluster in tiles
+     * @return cluster graph of the maze
+     */
+    public ClusterGraph getClusterGraph(int clusterSize) {
+        return clusterGraphs.computeIfAbsent(clusterSize, size -> new ClusterGraph(this, size));
+    }
+
+    /**
+     * Method to get the ALT landmark table of the maze for a given number of landmarks
+     * (Built on first use, then reused by every later query)
+     * The count is reduced to what fits LandmarkTable.MAX_TABLE_SIZE for this maze
+     * @param count is the number of landmarks
+     * @return landmark table of the maze (null if the maze is too large for landmark tables)
+     */
+    public LandmarkTable getLandmarks(int count) {
+        int fitted = Math.min(count, LandmarkTable.getMaxLandmarks(size));
+        if(fitted < 1) {
+            return null;
+        }
+        return landmarkTables.computeIfAbsent(fitted, k -> new LandmarkTable(this, k));
+    }
+
+    // *** Utility Methods ***
+
     /**
      * Method to get all Open (Non-Wall) Neighbors of a given node
-     * Automatically adds given node to expanded order if not already in list
      * @param n is the given node
      * @param shuffle is whether result should be shuffled (Without favors order N,S,E,W)
      * @return an array of Open Neighbors (Can be empty)
      */
     public LinkedList<Node> getNeighbors(Node n, boolean shuffle) {
-
-        // Handle Expansion
-        if(!expanded.contains(n)) {
-            expanded.add(n);
-            expandedOrder.add(n);
-        }
-
         LinkedList<Node> neighbors = new LinkedList<>();
 
         int x = n.getX();
@@ -192,16 +383,65 @@ public class Maze {
     }
 
     /**
-     * Method to run a given pathfinding algorithm through the maze
-     * (Intended for use through Pathfinder Application, not Separate)
+     * Method to get the indexes of all Open (Non-Wall) Neighbors of the tile at a given index
+     * @param index is the given tile index
+     * @param out is the array to write neighbor indexes into (Length of at least 4)
+     * @param shuffle is whether result should be shuffled (Without favors order N,S,E,W)
+     * @return the number of neighbors written to out
+     */
+    public int getNeighbors(int index, int[] out, boolean shuffle) {
+        int count = 0;
+        int col = index % width;
+
+        // N,S,E,W
+        if(index >= width && costs.getCost(index - width) != WALL_COST) {
+            out[count++] = index - width;
+        }
+        if(index < size - width && costs.getCost(index + width) != WALL_COST) {
+            out[count++] = index + width;
+        }
+        if(col < width - 1 && costs.getCost(index + 1) != WALL_COST) {
+            out[count++] = index + 1;
+        }
+        if(col > 0 && costs.getCost(index - 1) != WALL_COST) {
+            out[count++] = index - 1;
+        }
+
+        if(shuffle) {
+            // Shuffle neighbors to prevent path algorithms favoring specific directions
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for(int i = count - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = out[i];
+                out[i] = out[j];
+                out[j] = tmp;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Method to run a given pathfinding algorithm through the maze, recording its expanded nodes
+     * Repeated queries are answered from the shared PathCache without searching again
      * @param algorithm is the algorithm string
      * @param start is the start node
      * @param goal is the goal node
      * @return the PathResult of the pathfinding algorithm
      */
     public PathResult runAlgorithm(String algorithm, Node start, Node goal) {
-        resetExpanded(); // Reset Expanded Nodes
-        return PathAlgorithms.runAlgorithm(algorithm, start, goal, this); // Run Pathfinding Algorithm
+        return PathCache.getShared().runAlgorithm(this, algorithm, start, goal, null);
+    }
+
+    /**
+     * Method to run a given pathfinding algorithm through the maze (Always searches, bypassing the cache)
+     * @param algorithm is the algorithm string
+     * @param start is the start node
+     * @param goal is the goal node
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
+     * @return the PathResult of the pathfinding algorithm
+     */
+    public PathResult runAlgorithm(String algorithm, Node start, Node goal, SearchTrace trace) {
+        return PathAlgorithms.runAlgorithm(algorithm, start, goal, this, trace);
     }
 
     /**
@@ -210,16 +450,16 @@ public class Maze {
      */
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for(int i = 0; i < getHeight(); i++) {
+        for(int i = 0; i < height; i++) {
             sb.append("[");
-            for(int j = 0; j < getWidth(); j++) {
-                sb.append(map[i][j]);
-                if(j < getHeight()-1) {
+            for(int j = 0; j < width; j++) {
+                sb.append(getTileStr(i * width + j));
+                if(j < width-1) {
                     sb.append(",");
                 }
             }
             sb.append("]");
-            if(i < getWidth()-1) {
+            if(i < height-1) {
                 sb.append("\n");
             }
         }
@@ -237,6 +477,16 @@ public class Maze {
         return Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
     }
 
+    /**
+     * Method to get the manhattan distance between two tile indexes
+     * @param a is the first tile index
+     * @param b is the second tile index
+     * @return manhattan distance between given tiles
+     */
+    public int getManhattanDistance(int a, int b) {
+        return Math.abs(a / width - b / width) + Math.abs(a % width - b % width);
+    }
+
 
 
     /**
@@ -259,4 +509,45 @@ public class Maze {
         }
         return pathCost;
     }
+
+    /**
+     * Method to get the component label array, labeling the maze on first use with a flood fill
+     * @return component label of each tile
+     */
+    private int[] getComponents() {
+        int[] labels = components;
+        if(labels == null) {
+            labels = new int[size];
+            Arrays.fill(labels, NO_COMPONENT);
+            int[] queue = new int[size];
+            int[] neighbors = new int[4];
+            int count = 0;
+
+            for(int seed = 0; seed < size; seed++) {
+                if(costs.getCost(seed) == WALL_COST || labels[seed] != NO_COMPONENT) {
+                    continue;
+                }
+
+                // Flood Fill the seed's component
+                int head = 0;
+                int tail = 0;
+                labels[seed] = count;
+                queue[tail++] = seed;
+                while(head < tail) {
+                    int cur = queue[head++];
+                    int n = getNeighbors(cur, neighbors, false);
+                    for(int i = 0; i < n; i++) {
+                        if(labels[neighbors[i]] == NO_COMPONENT) {
+                            labels[neighbors[i]] = count;
+                            queue[tail++] = neighbors[i];
+                        }
+                    }
+                }
+                count++;
+            }
+            componentCount = count;
+            components = labels;
+        }
+        return labels;
+    }
 }
@@ -0,0 +1,328 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class - Streaming parser for text maze files
+ * Reads the file through a fixed-size buffer and writes costs straight into a flat int array,
+ * so no line or token Strings are created and memory use does not depend on the line length
+ *
+ * Format:
+ *      height,width
+ *      height rows of width comma separated tokens (A cost of digits 0-9, or '_' for a wall)
+ * Spaces, tabs and '\r' around tokens are ignored, extra tokens at the end of a row are ignored,
+ * and anything after the last row (e.g. '#' comment lines) is never read
+ */
+public class MazeFileParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_TOKEN_ECHO = 16; // Characters of an invalid token shown in errors
+    private static final int EOF = -1;
+
+    // Tile States of the row parser
+    private static final int TILE_NONE = 0; // No token yet
+    private static final int TILE_DIGITS = 1; // Reading a cost
+    private static final int TILE_WALL = 2; // Read a wall
+    private static final int TILE_DIGITS_END = 3; // Cost ended by a blank
+    private static final int TILE_WALL_END = 4; // Wall ended by a blank
+
+    private final FileChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+    private final String source;
+    private int pos; // Next byte to read in the buffer
+    private int limit; // Number of valid bytes in the buffer
+    private long base; // File offset of buffer[0]
+
+    // Position Tracking (Columns are only worked out when an error is reported)
+    private int line = 1;
+    private long lineStart; // File offset of the first byte of the current line
+    private int lastLineLength; // Column of the '\n' ending the previous line
+
+    /**
+     * Constructor - Create a parser reading from an open file channel
+     * @param channel is the file channel to read
+     * @param source is the file name used in error messages
+     */
+    private MazeFileParser(FileChannel channel, String source) {
+        this.channel = channel;
+        this.source = source;
+    }
+
+    /**
+     * Method to parse a text maze file into a cost grid
+     * @param filepath is the path to the text maze file
+     * @return cost grid of the maze
+     * @throws IOException if the file cannot be read
+     * @throws FileUtils.InvalidMazeException with the line and column of the first invalid token
+     */
+    public static ArrayCostGrid parse(String filepath) throws IOException {
+        try(FileChannel channel = FileChannel.open(Path.of(filepath), StandardOpenOption.READ)) {
+            return new MazeFileParser(channel, filepath).parseGrid();
+        }
+    }
+
+    /**
+     * Method to parse the size line and every row of the maze
+     * Rows are parsed by a state machine over the raw buffer, so each byte costs one pass through the loop
+     * @return cost grid of the maze
+     * @throws IOException if the file cannot be read
+     */
+    private ArrayCostGrid parseGrid() throws IOException {
+        // Size Line - height,width
+        int height = parseSize("height", ',');
+        int width = parseSize("width", '\n');
+        if((long) height * width > Integer.MAX_VALUE) {
+            throw error("maze size " + height + "x" + width + " is too large", line - 1, 1);
+        }
+        int[] costs = new int[height * width];
+
+        // Rows
+        int row = 0;
+        int col = 0; // Tile within the row
+        int index = 0;
+        int state = TILE_NONE;
+        long value = 0;
+        boolean skipping = false; // Ignoring extra tiles until the end of the row
+
+        while(row < height) {
+            // End of File - only valid at the end of the last row
+            if(pos == limit && !fill()) {
+                if(row == height - 1 && (skipping || col == width - 1 && state != TILE_NONE)) {
+                    if(!skipping) {
+                        costs[index] = state == TILE_WALL || state == TILE_WALL_END ? Maze.WALL_COST : (int) value;
+                    }
+                    break;
+                }
+                throw col == 0 && state == TILE_NONE
+                        ? errorAt("expected " + height + " rows but found " + row, EOF)
+                        : errorAt("expected " + width + " tiles in row " + (row + 1) + " but found " + (state == TILE_NONE ? col : col + 1), EOF);
+            }
+
+            byte[] buf = buffer;
+            int p = pos;
+            int lim = limit;
+            while(p < lim) {
+                int c = buf[p++];
+
+                // Extra Tiles - skip to the end of the row
+                if(skipping) {
+                    if(c == '\n') {
+                        lastLineLength = (int) (base + p - lineStart);
+                        line++;
+                        lineStart = base + p;
+                        skipping = false;
+                        col = 0;
+                        if(++row == height) {
+                            break;
+                        }
+                    }
+                    continue;
+                }
+
+                if(c >= '0' && c <= '9') {
+                    if(state == TILE_NONE) {
+                        state = TILE_DIGITS;
+                        value = c - '0';
+                    }
+                    else if(state == TILE_DIGITS) {
+                        value = value * 10 + (c - '0');
+                        if(value > Integer.MAX_VALUE) {
+                            pos = p;
+                            throw error("cost is too large", line, column());
+                        }
+                    }
+                    else {
+                        pos = p;
+                        throw invalidToken(c);
+                    }
+                }
+                else if(c == ',' || c == '\n') {
+                    if(state == TILE_NONE) {
+                        pos = p;
+                        throw errorAt("expected " + width + " tiles in row " + (row + 1) + " but found " + col, c);
+                    }
+                    costs[index++] = state == TILE_WALL || state == TILE_WALL_END ? Maze.WALL_COST : (int) value;
+                    state = TILE_NONE;
+                    col++;
+
+                    if(c == ',') {
+                        skipping = col == width;
+                        continue;
+                    }
+
+                    // End of Row
+                    lastLineLength = (int) (base + p - lineStart);
+                    line++;
+                    lineStart = base + p;
+                    if(col < width) {
+                        pos = p;
+                        throw errorAt("expected " + width + " tiles in row " + (row + 1) + " but found " + col, c);
+                    }
+                    col = 0;
+                    if(++row == height) {
+                        break;
+                    }
+                }
+                else if(c == '_') {
+                    if(state != TILE_NONE) {
+                        pos = p;
+                        throw invalidToken(c);
+                    }
+                    state = TILE_WALL;
+                }
+                else if(c == ' ' || c == '\t' || c == '\r') {
+                    if(state == TILE_DIGITS) {
+                        state = TILE_DIGITS_END;
+                    }
+                    else if(state == TILE_WALL) {
+                        state = TILE_WALL_END;
+                    }
+                }
+                else {
+                    pos = p;
+                    throw invalidToken(c & 0xFF);
+                }
+            }
+            pos = p;
+        }
+        return new ArrayCostGrid(height, width, costs);
+    }
+
+    /**
+     * Method to parse one positive number of the size line
+     * @param name is the name of the number for error messages
+     * @param end is the character expected after the number
+     * @return the parsed number
+     * @throws IOException if the file cannot be read
+     */
+    private int parseSize(String name, char end) throws IOException {
+        int c = skipBlanks(read());
+        int tokenColumn = column();
+
+        long value = 0;
+        int digits = 0;
+        while(c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if(value > Integer.MAX_VALUE) {
+                throw error(name + " is too large", line, tokenColumn);
+            }
+            digits++;
+            c = read();
+        }
+        c = skipBlanks(c);
+
+        if(digits == 0 || value == 0) {
+            throw error("expected a positive " + name, line, tokenColumn);
+        }
+        if(c != end) {
+            throw c == '\n' || c == EOF ? errorAt("expected '" + end + "' after " + name, c) : invalidToken(c);
+        }
+        return (int) value;
+    }
+
+    // *** Reading ***
+
+    /**
+     * Method to read the next byte, refilling the buffer from the channel when it runs out
+     * @return next byte (0-255) or EOF
+     * @throws IOException if the file cannot be read
+     */
+    private int read() throws IOException {
+        if(pos == limit && !fill()) {
+            return EOF;
+        }
+        int c = buffer[pos++] & 0xFF;
+        if(c == '\n') {
+            lastLineLength = column();
+            line++;
+            lineStart = base + pos;
+        }
+        return c;
+    }
+
+    /**
+     * Method to refill the buffer with the next block of the file
+     * @return if any bytes were read (False at the end of the file)
+     * @throws IOException if the file cannot be read
+     */
+    private boolean fill() throws IOException {
+        wrapped.clear();
+        int n = channel.read(wrapped);
+        if(n <= 0) {
+            return false;
+        }
+        base += limit;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    /**
+     * Method to skip spaces, tabs and '\r' starting from a given byte
+     * @param c is the current byte
+     * @return the first byte that is not a blank
+     * @throws IOException if the file cannot be read
+     */
+    private int skipBlanks(int c) throws IOException {
+        while(c == ' ' || c == '\t' || c == '\r') {
+            c = read();
+        }
+        return c;
+    }
+
+    // *** Errors ***
+
+    /**
+     * Method to get the column of the last byte read on the current line (1-based)
+     * @return current column
+     */
+    private int column() {
+        return (int) (base + pos - lineStart);
+    }
+
+    /**
+     * Method to build an error for an invalid token, echoing the token up to the next separator
+     * @param c is the first invalid byte (Just read)
+     * @return exception to throw
+     * @throws IOException if the file cannot be read
+     */
+    private FileUtils.InvalidMazeException invalidToken(int c) throws IOException {
+        int errorLine = line;
+        int errorColumn = column();
+        StringBuilder token = new StringBuilder();
+        while(c != ',' && c != '\n' && c != '\r' && c != EOF && token.length() < MAX_TOKEN_ECHO) {
+            token.append((char) c);
+            c = read();
+        }
+        return error("invalid tile '" + token + "'", errorLine, errorColumn);
+    }
+
+    /**
+     * Method to build an error at the byte just read (The end of its line for '\n', past the last byte for EOF)
+     * @param message is the error description
+     * @param c is the byte just read
+     * @return exception to throw
+     */
+    private FileUtils.InvalidMazeException errorAt(String message, int c) {
+        if(c == '\n') {
+            return error(message, line - 1, lastLineLength);
+        }
+        return error(message, line, c == EOF ? column() + 1 : column());
+    }
+
+    /**
+     * Method to build an error for a position in the file
+     * @param message is the error description
+     * @param errorLine is the line of the error
+     * @param errorColumn is the column of the error
+     * @return exception to throw
+     */
+    private FileUtils.InvalidMazeException error(String message, int errorLine, int errorColumn) {
+        return new FileUtils.InvalidMazeException(String.format("Error: %s at line %d, column %d of %s",
+                message, errorLine, errorColumn, source));
+    }
+}
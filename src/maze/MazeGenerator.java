@@ -0,0 +1,582 @@
+package maze;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Class - Seeded maze generator for large test maps
+ * Mazes are produced one row at a time and streamed to disk, so writing a file only holds one row
+ * (The backtracker also keeps one flag byte per maze cell, a quarter of the tiles)
+ * The same settings and seed always produce the same maze
+ *
+ * Modes:
+ *      MODE_BACKTRACKER - a perfect maze (Exactly one path between open tiles) carved by a recursive backtracker
+ *      MODE_RANDOM - each tile is a wall with the given density
+ *      MODE_ROOMS - one random room per block, linked to the blocks to its right and below by corridors
+ * Open tiles get costs from the cost range with a uniform or skewed (Mostly cheap) distribution
+ */
+public class MazeGenerator {
+    // Modes
+    public static final String MODE_BACKTRACKER = "backtracker";
+    public static final String MODE_RANDOM = "random";
+    public static final String MODE_ROOMS = "rooms";
+
+    // Cost Distributions
+    public static final String COSTS_UNIFORM = "uniform";
+    public static final String COSTS_SKEWED = "skewed";
+
+    public static final int DEFAULT_ROOM_BLOCK = 16;
+    private static final int OPEN = 0; // Marks an open tile in a row before costs are drawn
+    private static final int MIN_ROOM_SIZE = 3;
+
+    // Backtracker Cell Flags (One byte per cell)
+    private static final int EAST = 1; // Passage to the cell on the right
+    private static final int SOUTH = 2; // Passage to the cell below
+    private static final int VISITED = 4;
+    private static final int PARENT_SHIFT = 3; // Two bits - direction back to the parent cell
+    private static final int[] DIRECTION_ROW = {-1, 0, 1, 0}; // Up, Right, Down, Left
+    private static final int[] DIRECTION_COL = {0, 1, 0, -1};
+
+    private final int height;
+    private final int width;
+    private final String mode;
+    private final long seed;
+    private double density = 0.3;
+    private int minCost = 1;
+    private int maxCost = 1;
+    private String costDistribution = COSTS_UNIFORM;
+    private int roomBlock = DEFAULT_ROOM_BLOCK;
+
+    /**
+     * Interface - Produces the tiles of a maze one row at a time (Walls as WALL_COST, open tiles as OPEN)
+     */
+    private interface RowSource {
+        /**
+         * Method to fill the next row of the maze
+         * @param row is the array to fill (Length width)
+         */
+        void nextRow(int[] row);
+    }
+
+    /**
+     * Constructor - Create a generator for mazes of a given size
+     * @param height is the number of rows
+     * @param width is the number of columns
+     * @param mode is the generation mode (MODE_BACKTRACKER, MODE_RANDOM or MODE_ROOMS)
+     * @param seed is the random seed
+     */
+    public MazeGenerator(int height, int width, String mode, long seed) {
+        if(height < 1 || width < 1) {
+            throw new IllegalArgumentException("Maze size must be at least 1x1: " + height + "x" + width);
+        }
+        if(!mode.equals(MODE_BACKTRACKER) && !mode.equals(MODE_RANDOM) && !mode.equals(MODE_ROOMS)) {
+            throw new IllegalArgumentException("Unknown generation mode: " + mode);
+        }
+        this.height = height;
+        this.width = width;
+        this.mode = mode;
+        this.seed = seed;
+    }
+
+    // *** Set Methods ***
+
+    /**
+     * Method to set the wall density of MODE_RANDOM
+     * @param density is the chance of each tile being a wall (0 to 1)
+     */
+    public void setDensity(double density) {
+        if(density < 0 || density > 1) {
+            throw new IllegalArgumentException("Wall density must be between 0 and 1: " + density);
+        }
+        this.density = density;
+    }
+
+    /**
+     * Method to set the costs given to open tiles
+     * @param minCost is the smallest cost
+     * @param maxCost is the largest cost
+     * @param distribution is the cost distribution (COSTS_UNIFORM or COSTS_SKEWED)
+     */
+    public void setCosts(int minCost, int maxCost, String distribution) {
+        if(minCost < 0 || maxCost < minCost) {
+            throw new IllegalArgumentException("Invalid cost range: " + minCost + "-" + maxCost);
+        }
+        if(!distribution.equals(COSTS_UNIFORM) && !distribution.equals(COSTS_SKEWED)) {
+            throw new IllegalArgumentException("Unknown cost distribution: " + distribution);
+        }
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+        this.costDistribution = distribution;
+    }
+
+    /**
+     * Method to set the block size of MODE_ROOMS (Each block holds one room)
+     * @param roomBlock is the block size in tiles
+     */
+    public void setRoomBlock(int roomBlock) {
+        if(roomBlock < MIN_ROOM_SIZE + 2) {
+            throw new IllegalArgumentException("Room block must be at least " + (MIN_ROOM_SIZE + 2) + ": " + roomBlock);
+        }
+        this.roomBlock = roomBlock;
+    }
+
+    // *** Output ***
+
+    /**
+     * Method to generate the maze in memory
+     * @return cost grid of the maze
+     */
+    public ArrayCostGrid generate() {
+        if((long) height * width > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze is too large to hold in memory: " + height + "x" + width);
+        }
+        int[] costs = new int[height * width];
+        int[] row = new int[width];
+        RowSource rows = createRows();
+        SplittableRandom costRandom = createCostRandom();
+
+        for(int i = 0; i < height; i++) {
+            rows.nextRow(row);
+            drawCosts(row, costRandom);
+            System.arraycopy(row, 0, costs, i * width, width);
+        }
+        return new ArrayCostGrid(height, width, costs);
+    }
+
+    /**
+     * Method to stream the maze into a text maze file
+     * @param filepath is the path to write to
+     * @throws IOException if the file cannot be written
+     */
+    public void writeText(String filepath) throws IOException {
+        int[] row = new int[width];
+        byte[] line = new byte[width * 11 + 1]; // Up to 10 digits and a separator per tile
+        RowSource rows = createRows();
+        SplittableRandom costRandom = createCostRandom();
+
+        try(OutputStream out = new BufferedOutputStream(new FileOutputStream(filepath), 1 << 16)) {
+            out.write((height + "," + width + "\n").getBytes());
+
+            for(int i = 0; i < height; i++) {
+                rows.nextRow(row);
+                drawCosts(row, costRandom);
+
+                int length = 0;
+                for(int j = 0; j < width; j++) {
+                    if(j > 0) {
+                        line[length++] = ',';
+                    }
+                    if(row[j] == Maze.WALL_COST) {
+                        line[length++] = '_';
+                    }
+                    else {
+                        length = putNumber(line, length, row[j]);
+                    }
+                }
+                line[length++] = '\n';
+                out.write(line, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Method to stream the maze into a binary maze file (See BinaryMazeFile)
+     * The cell width comes from the cost range, the exact min and max costs are written into the header at the end
+     * @param filepath is the path to write to
+     * @throws IOException if the file cannot be written
+     */
+    public void writeBinary(String filepath) throws IOException {
+        int cellWidth = maxCost < 0xFF ? 1 : maxCost < 0xFFFF ? 2 : 4;
+        int[] row = new int[width];
+        RowSource rows = createRows();
+        SplittableRandom costRandom = createCostRandom();
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filepath), 1 << 16))) {
+            out.writeInt(BinaryMazeFile.MAGIC);
+            out.writeInt(BinaryMazeFile.VERSION);
+            out.writeInt(height);
+            out.writeInt(width);
+            out.writeInt(cellWidth);
+            out.writeInt(0); // Min and max cost - patched below
+            out.writeInt(0);
+
+            for(int i = 0; i < height; i++) {
+                rows.nextRow(row);
+                drawCosts(row, costRandom);
+                for(int cost : row) {
+                    if(cost != Maze.WALL_COST) {
+                        min = Math.min(min, cost);
+                        max = Math.max(max, cost);
+                    }
+                    switch (cellWidth) {
+                        case 1 -> out.writeByte(cost);
+                        case 2 -> out.writeShort(cost);
+                        default -> out.writeInt(cost);
+                    }
+                }
+            }
+        }
+
+        try(RandomAccessFile file = new RandomAccessFile(filepath, "rw")) {
+            file.seek(BinaryMazeFile.HEADER_SIZE - 2 * Integer.BYTES);
+            file.writeInt(min == Integer.MAX_VALUE ? 0 : min);
+            file.writeInt(max);
+        }
+    }
+
+    /**
+     * Method to generate maze files from the command line
+     * Usage: java maze.MazeGenerator name height width [-mode backtracker|random|rooms] [-seed n] [-density d]
+     *        [-costs min-max] [-distribution uniform|skewed] [-block n] [-binary]
+     * @param args are the command line arguments
+     */
+    public static void main(String[] args) {
+        if(args.length < 3) {
+            System.out.println("Usage: java maze.MazeGenerator <name> <height> <width> [-mode backtracker|random|rooms]"
+                    + " [-seed n] [-density d] [-costs min-max] [-distribution uniform|skewed] [-block n] [-binary]");
+            return;
+        }
+
+        try {
+            String name = args[0];
+            String mode = MODE_BACKTRACKER;
+            long seed = 0;
+            double density = -1;
+            int min = 1;
+            int max = 1;
+            String distribution = COSTS_UNIFORM;
+            int block = DEFAULT_ROOM_BLOCK;
+            boolean binary = false;
+
+            for(int i = 3; i < args.length; i++) {
+                switch(args[i]) {
+                    case "-binary" -> binary = true;
+                    case "-mode" -> mode = args[++i];
+                    case "-seed" -> seed = Long.parseLong(args[++i]);
+                    case "-density" -> density = Double.parseDouble(args[++i]);
+                    case "-distribution" -> distribution = args[++i];
+                    case "-block" -> block = Integer.parseInt(args[++i]);
+                    case "-costs" -> {
+                        String range = args[++i];
+                        int dash = range.indexOf('-');
+                        min = Integer.parseInt(dash < 0 ? range : range.substring(0, dash));
+                        max = Integer.parseInt(dash < 0 ? range : range.substring(dash + 1));
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+
+            MazeGenerator generator = new MazeGenerator(Integer.parseInt(args[1]), Integer.parseInt(args[2]), mode, seed);
+            generator.setCosts(min, max, distribution);
+            generator.setRoomBlock(block);
+            if(density >= 0) {
+                generator.setDensity(density);
+            }
+
+            FileUtils.initMazeFile();
+            long start = System.nanoTime();
+            generator.writeText(FileUtils.MAZE_DIR_PATH + name);
+            System.out.printf("Wrote %s in %d ms%n", name, (System.nanoTime() - start) / 1_000_000);
+
+            if(binary) {
+                int dot = name.lastIndexOf('.');
+                String binaryName = (dot > 0 ? name.substring(0, dot) : name) + BinaryMazeFile.EXTENSION;
+                start = System.nanoTime();
+                generator.writeBinary(FileUtils.MAZE_DIR_PATH + binaryName);
+                System.out.printf("Wrote %s in %d ms%n", binaryName, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+        catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+        }
+        catch (IOException e) {
+            System.err.println("Failed to write maze: " + e.getMessage());
+        }
+    }
+
+    // *** Costs ***
+
+    /**
+     * Method to create the random source of tile costs (Separate from the layout so both are reproducible)
+     * @return random source of tile costs
+     */
+    private SplittableRandom createCostRandom() {
+        return new SplittableRandom(seed ^ 0x5DEECE66DL);
+    }
+
+    /**
+     * Method to replace the open tiles of a row with drawn costs
+     * Skewed costs are exponential with a mean of a quarter of the range (Clamped to the max cost)
+     * @param row is the row to fill
+     * @param random is the random source of tile costs
+     */
+    private void drawCosts(int[] row, SplittableRandom random) {
+        int range = maxCost - minCost;
+        boolean skewed = costDistribution.equals(COSTS_SKEWED);
+        for(int j = 0; j < row.length; j++) {
+            if(row[j] == Maze.WALL_COST) {
+                continue;
+            }
+            if(range == 0) {
+                row[j] = minCost;
+            }
+            else if(skewed) {
+                double extra = -Math.log(1 - random.nextDouble()) * range / 4;
+                row[j] = minCost + (int) Math.min(range, extra);
+            }
+            else {
+                row[j] = minCost + random.nextInt(range + 1);
+            }
+        }
+    }
+
+    // *** Layouts ***
+
+    /**
+     * Method to create the row source of the generation mode
+     * @return row source starting at the first row
+     */
+    private RowSource createRows() {
+        return switch(mode) {
+            case MODE_RANDOM -> createRandomRows();
+            case MODE_ROOMS -> createRoomRows();
+            default -> createBacktrackerRows();
+        };
+    }
+
+    /**
+     * Method to create rows of randomly placed walls
+     * @return row source of MODE_RANDOM
+     */
+    private RowSource createRandomRows() {
+        SplittableRandom random = new SplittableRandom(seed);
+        return row -> {
+            for(int j = 0; j < row.length; j++) {
+                row[j] = random.nextDouble() < density ? Maze.WALL_COST : OPEN;
+            }
+        };
+    }
+
+    /**
+     * Method to carve a perfect maze with an iterative recursive backtracker and create its rows
+     * Cells are the tiles with even row and column, and the tiles between two cells are opened for passages
+     * Each cell packs its passages, visited flag and the direction back to its parent into one byte,
+     * so backtracking follows parent directions instead of keeping a stack
+     * @return row source of MODE_BACKTRACKER
+     */
+    private RowSource createBacktrackerRows() {
+        int cellRows = (height + 1) / 2;
+        int cellCols = (width + 1) / 2;
+        if((long) cellRows * cellCols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze is too large for the backtracker: " + height + "x" + width);
+        }
+        byte[] cells = new byte[cellRows * cellCols];
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] options = new int[4];
+
+        // Carve from the first cell
+        int cur = 0;
+        cells[0] = VISITED;
+        while(true) {
+            int r = cur / cellCols;
+            int c = cur % cellCols;
+
+            // Unvisited Neighbor Cells
+            int count = 0;
+            for(int d = 0; d < 4; d++) {
+                int nr = r + DIRECTION_ROW[d];
+                int nc = c + DIRECTION_COL[d];
+                if(nr >= 0 && nr < cellRows && nc >= 0 && nc < cellCols && (cells[nr * cellCols + nc] & VISITED) == 0) {
+                    options[count++] = d;
+                }
+            }
+
+            if(count == 0) {
+                // Dead End - backtrack to the parent (Done when back at the first cell)
+                if(cur == 0) {
+                    break;
+                }
+                int back = (cells[cur] >> PARENT_SHIFT) & 3;
+                cur = (r + DIRECTION_ROW[back]) * cellCols + c + DIRECTION_COL[back];
+                continue;
+            }
+
+            // Carve to a random neighbor (Passages are stored on the upper or left cell)
+            int d = options[random.nextInt(count)];
+            int next = (r + DIRECTION_ROW[d]) * cellCols + c + DIRECTION_COL[d];
+            switch(d) {
+                case 0 -> cells[next] |= SOUTH;
+                case 1 -> cells[cur] |= EAST;
+                case 2 -> cells[cur] |= SOUTH;
+                default -> cells[next] |= EAST;
+            }
+            cells[next] |= (byte) (VISITED | ((d + 2) % 4) << PARENT_SHIFT);
+            cur = next;
+        }
+
+        int[] nextRow = {0};
+        return row -> {
+            int i = nextRow[0]++;
+            int r = i / 2;
+            for(int j = 0; j < row.length; j++) {
+                int c = j / 2;
+                boolean open;
+                if(i % 2 == 0) {
+                    open = j % 2 == 0 || (cells[r * cellCols + c] & EAST) != 0; // Cell or passage to the right
+                }
+                else {
+                    open = j % 2 == 0 && (cells[r * cellCols + c] & SOUTH) != 0; // Passage below
+                }
+                row[j] = open ? OPEN : Maze.WALL_COST;
+            }
+        };
+    }
+
+    /**
+     * Method to create rows of rooms linked by corridors
+     * The maze is split into blocks with one random room each (Derived from the seed and the block position),
+     * and each room is linked by an L-shaped corridor to the room on its right and the room below,
+     * so every open tile is reachable and a row only depends on its own band of blocks and the one above
+     * @return row source of MODE_ROOMS
+     */
+    private RowSource createRoomRows() {
+        int blockCols = Math.max(1, width / roomBlock);
+        int blockRows = Math.max(1, height / roomBlock);
+
+        // Rooms of the current band and the band above (x, y, width, height, center x, center y)
+        int[][] band = new int[blockCols][];
+        int[][] above = new int[blockCols][];
+        int[] state = {0, -1}; // Next row, current band
+
+        return row -> {
+            int i = state[0]++;
+            int b = Math.min(i / roomBlock, blockRows - 1);
+            if(b != state[1]) {
+                for(int bx = 0; bx < blockCols; bx++) {
+                    above[bx] = band[bx];
+                    band[bx] = createRoom(bx, b, blockCols, blockRows);
+                }
+                state[1] = b;
+            }
+
+            Arrays.fill(row, Maze.WALL_COST);
+            for(int bx = 0; bx < blockCols; bx++) {
+                int[] room = band[bx];
+                int cx = room[4];
+                int cy = room[5];
+
+                // Room
+                if(i >= room[1] && i < room[1] + room[3]) {
+                    openSpan(row, room[0], room[0] + room[2] - 1);
+                }
+
+                // Corridor to the room on the right - along this room's center row, then down its center column
+                if(bx + 1 < blockCols) {
+                    int[] right = band[bx + 1];
+                    if(i == cy) {
+                        openSpan(row, cx, right[4]);
+                    }
+                    if(i >= Math.min(cy, right[5]) && i <= Math.max(cy, right[5])) {
+                        row[right[4]] = OPEN;
+                    }
+                }
+
+                // Corridor to the room below - down this room's center column to the end of the band
+                if(b + 1 < blockRows && i >= cy) {
+                    row[cx] = OPEN;
+                }
+
+                // Corridor from the room above - down its center column, then along this room's center row
+                if(b > 0) {
+                    int[] up = above[bx];
+                    if(i <= cy) {
+                        row[up[4]] = OPEN;
+                    }
+                    if(i == cy) {
+                        openSpan(row, up[4], cx);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Method to place the room of one block (The same block always gets the same room)
+     * Rooms keep a one tile margin inside their block where it fits
+     * @param bx is the block column
+     * @param by is the block row
+     * @param blockCols is the number of block columns (The last one takes the leftover columns)
+     * @param blockRows is the number of block rows (The last one takes the leftover rows)
+     * @return room as (x, y, width, height, center x, center y)
+     */
+    private int[] createRoom(int bx, int by, int blockCols, int blockRows) {
+        SplittableRandom random = new SplittableRandom(seed ^ ((long) by << 32 | bx) * 0x9E3779B97F4A7C15L);
+        int x0 = bx * roomBlock;
+        int y0 = by * roomBlock;
+        int spanX = bx == blockCols - 1 ? width - x0 : roomBlock;
+        int spanY = by == blockRows - 1 ? height - y0 : roomBlock;
+
+        int[] room = new int[6];
+        placeRoom(random, x0, spanX, room, 0);
+        placeRoom(random, y0, spanY, room, 1);
+        return room;
+    }
+
+    /**
+     * Method to place a room along one axis of its block
+     * @param random is the random source of the block
+     * @param start is the first tile of the block on this axis
+     * @param span is the block length on this axis
+     * @param room is the room to fill (Position at axis, length at axis + 2, center at axis + 4)
+     * @param axis is 0 for columns or 1 for rows
+     */
+    private static void placeRoom(SplittableRandom random, int start, int span, int[] room, int axis) {
+        int margin = span > 2 ? 1 : 0;
+        int inner = span - 2 * margin;
+        int length = Math.min(inner, MIN_ROOM_SIZE) + random.nextInt(inner - Math.min(inner, MIN_ROOM_SIZE) + 1);
+        int position = start + margin + random.nextInt(inner - length + 1);
+
+        room[axis] = position;
+        room[axis + 2] = length;
+        room[axis + 4] = position + length / 2;
+    }
+
+    // *** Text Utilities ***
+
+    /**
+     * Method to open every tile of a row between two columns (In either order)
+     * @param row is the given row
+     * @param a is one end column
+     * @param b is the other end column
+     */
+    private static void openSpan(int[] row, int a, int b) {
+        Arrays.fill(row, Math.min(a, b), Math.max(a, b) + 1, OPEN);
+    }
+
+    /**
+     * Method to put the digits of a non-negative number into a line buffer
+     * @param line is the line buffer
+     * @param length is the current line length
+     * @param value is the number
+     * @return new line length
+     */
+    private static int putNumber(byte[] line, int length, int value) {
+        int digits = 1;
+        for(int v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for(int k = length + digits - 1; k >= length; k--) {
+            line[k] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return length + digits;
+    }
+}
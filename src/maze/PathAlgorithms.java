@@ -1,14 +1,16 @@
 package maze;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Class - Used to store all Pathfinder path algorithms
  *
  * >>> IMPORTANT <<<
  * All Methods in this class MUST:
- *      Take a Start maze.Node, Goal Node, and Maze Object
+ *      Take a Start maze.Node, Goal Node, Maze Object and SearchTrace (null when expansions are not recorded)
  *      Return a PathResult Object
+ *      Report every expanded node to the SearchTrace (If given)
  *
  *      Calculate a Path to Return if possible
  *      The Path Must Include Both Start and Goal Nodes
@@ -20,56 +22,55 @@ public class PathAlgorithms {
      * @param start is the given start node
      * @param goal is the given goal node
      * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
      * @return a maze.PathResult object with result
      */
-    public static PathResult depthFirstSearch(Node start, Node goal, Maze m) {
-        // Setup Stack
-        Stack<NodePath> npStack = new Stack<>();
+    public static PathResult depthFirstSearch(Node start, Node goal, Maze m, SearchTrace trace) {
+        // Setup Workspace (Visited and Parent Arrays)
+        SearchWorkspace ws = SearchWorkspace.acquire(m.getSize());
+        int goalIndex = m.getIndex(goal);
+        int[] neighbors = new int[4];
 
-        // Add Start Node to Stack
-        LinkedList<Node> path = new LinkedList<>();
-        path.add(start);
-        npStack.push(new NodePath(start, path));
+        // Setup Stack (Pairs of Node Index and Parent Index)
+        int[] stack = ws.getQueue(64);
+        int top = 0;
 
-        // Setup Visited Node Set
-        HashSet<Node> visited = new HashSet<>();
+        // Add Start Node to Stack
+        stack[top++] = m.getIndex(start);
+        stack[top++] = NO_PARENT;
 
         // DFS
-        while(!npStack.isEmpty()) {
-            // Pop Node and Path
-            NodePath np = npStack.pop();
-            Node curNode = np.node();
-
-            // Check if current node is the goal
-            if(curNode.equals(goal)) {
-                // Get Path Cost
-                int pathCost = m.getCostFromPath(np.path());
-
-                return new PathResult(
-                        m.getMaze(),
-                        start,
-                        goal,
-                        np.path(),
-                        m.getExpandedOrder(),
-                        m.getExpanded(),
-                        pathCost
-                );
-            }
+        while(top > 0) {
+            // Pop Node and Parent
+            int curParent = stack[--top];
+            int cur = stack[--top];
 
             // Expand Node
-            if(!visited.contains(curNode)) {
+            if(!ws.isVisited(cur)) {
                 // Add Node to Visited
-                visited.add(curNode);
+                ws.visit(cur);
+                ws.setParent(cur, curParent);
+
+                // Check if current node is the goal
+                if(cur == goalIndex) {
+                    return buildResult(start, goal, ws.parents(), m, trace);
+                }
+
+                // Record Expansion
+                if(trace != null) {
+                    trace.onExpand(cur);
+                }
 
                 // Get Neighbor Nodes
-                LinkedList<Node> neighbors = m.getNeighbors(curNode, true);
+                int count = m.getNeighbors(cur, neighbors, true);
 
                 // Add All Neighbors to Stack
-                for(Node n : neighbors) {
-                    LinkedList<Node> newPath = new LinkedList<>(np.path());
-
-                    newPath.add(n);
-                    npStack.push(new NodePath(n, newPath));
+                for(int i = 0; i < count; i++) {
+                    if(top + 2 > stack.length) {
+                        stack = ws.growQueue(top + 2);
+                    }
+                    stack[top++] = neighbors[i];
+                    stack[top++] = cur;
                 }
             }
         }
@@ -82,55 +83,49 @@ public class PathAlgorithms {
      * @param start is the given start node
      * @param goal is the given goal node
      * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
      * @return a PathResult object with result
      */
-    public static PathResult breadthFirstSearch(Node start, Node goal, Maze m) {
-        Queue<NodePath> npQueue = new LinkedList<>(); // Setup Queue
+    public static PathResult breadthFirstSearch(Node start, Node goal, Maze m, SearchTrace trace) {
+        // Setup Workspace (Reached and Parent Arrays)
+        SearchWorkspace ws = SearchWorkspace.acquire(m.getSize());
+        int goalIndex = m.getIndex(goal);
+        int[] neighbors = new int[4];
 
-        // Add Start Node to Queue
-        LinkedList<Node> path = new LinkedList<>();
-        path.add(start);
-        npQueue.add(new NodePath(start, path));
+        // Setup Queue (Each node is queued at most once, so the queue never wraps)
+        int[] queue = ws.getQueue(m.getSize());
+        int head = 0;
+        int tail = 0;
 
-        // Setup Visited Node Set
-        HashSet<Node> visited = new HashSet<>();
+        // Add Start Node to Queue
+        int startIndex = m.getIndex(start);
+        queue[tail++] = startIndex;
+        ws.reach(startIndex, 0, NO_PARENT);
 
         // BFS
-        while(!npQueue.isEmpty()) {
-            // Dequeue Node and Path
-            NodePath np = npQueue.poll();
-            Node curNode = np.node();
+        while(head < tail) {
+            // Dequeue Node
+            int cur = queue[head++];
 
             // Check if current node is the goal
-            if(curNode.equals(goal)) {
-                // Get Path Cost
-                int pathCost = m.getCostFromPath(np.path());
-
-                return new PathResult(
-                        m.getMaze(),
-                        start,
-                        goal,
-                        np.path(),
-                        m.getExpandedOrder(),
-                        m.getExpanded(),
-                        pathCost
-                );
+            if(cur == goalIndex) {
+                return buildResult(start, goal, ws.parents(), m, trace);
             }
 
-            // Expand Node
-            if(!visited.contains(curNode)) {
-                // Add Node to Visited
-                visited.add(curNode);
-
-                // Get Neighbor Nodes
-                LinkedList<Node> neighbors = m.getNeighbors(curNode, true);
+            // Record Expansion
+            if(trace != null) {
+                trace.onExpand(cur);
+            }
 
-                // Add All Neighbors to Queue
-                for(Node n : neighbors) {
-                    LinkedList<Node> newPath = new LinkedList<>(np.path());
+            // Get Neighbor Nodes
+            int count = m.getNeighbors(cur, neighbors, true);
 
-                    newPath.add(n);
-                    npQueue.add(new NodePath(n, newPath));
+            // Add All Unseen Neighbors to Queue
+            for(int i = 0; i < count; i++) {
+                int next = neighbors[i];
+                if(!ws.isReached(next)) {
+                    ws.reach(next, ws.getCost(cur) + 1, cur);
+                    queue[tail++] = next;
                 }
             }
         }
@@ -143,146 +138,763 @@ public class PathAlgorithms {
      * @param start is the given start node
      * @param goal is the given goal node
      * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
      * @return a PathResult object with result
      */
-    public static PathResult uniformCostSearch(Node start, Node goal, Maze m) {
+    public static PathResult uniformCostSearch(Node start, Node goal, Maze m, SearchTrace trace) {
         // Priority Queue - Cumulative Action Cost
+        return bestFirstSearch(start, goal, m, trace, 0, null);
+    }
 
-        // Record for Storing NodePath and Priority Cost
-        record UCSNodePath(NodePath nodePath, int cost) {}
+    /**
+     * Method to run an A* Search Algorithm
+     * This Algorithm utilizes the total cost of each node + a distance-to-goal heuristic
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
+     * @return a PathResult object with result
+     */
+    public static PathResult aStarSearch(Node start, Node goal, Maze m, SearchTrace trace) {
+        // Priority Queue - (Cumulative Action Cost + Heuristic)
+        // The Heuristic used in this algorithm is the Manhattan Distance between a Node and the given Goal
+        return bestFirstSearch(start, goal, m, trace, 1, null);
+    }
 
-        // Setup Priority Queue
-        PriorityQueue<UCSNodePath> npPQueue = new PriorityQueue<>(Comparator.comparingInt(UCSNodePath::cost));
+    /**
+     * Method to run an A* Search Algorithm with the landmark (ALT) heuristic and the default landmark count
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
+     * @return a PathResult object with result
+     */
+    public static PathResult landmarkAStarSearch(Node start, Node goal, Maze m, SearchTrace trace) {
+        return landmarkAStarSearch(start, goal, m, DEFAULT_LANDMARKS, trace);
+    }
 
-        // Add Start to Priority Queue
-        LinkedList<Node> path = new LinkedList<>();
-        path.add(start);
-        npPQueue.add(new UCSNodePath(new NodePath(start, path), 0));
+    /**
+     * Method to run an A* Search Algorithm with the landmark (ALT) heuristic
+     * The Heuristic is the best triangle-inequality bound over the maze's landmarks (See LandmarkTable),
+     * which stays tight around walls and expensive regions where the Manhattan Distance does not
+     * Mazes too large for landmark tables (See LandmarkTable.MAX_TABLE_SIZE) use fewer landmarks, or none
+     * (The Manhattan Distance scaled by the smallest tile cost, which stays admissible with zero cost tiles)
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param m is the maze to search through
+     * @param landmarkCount is the number of landmarks (The table is built once per maze and count)
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
+     * @return a PathResult object with result (Optimal)
+     */
+    public static PathResult landmarkAStarSearch(Node start, Node goal, Maze m, int landmarkCount, SearchTrace trace) {
+        // A null table (Maze too large) falls back to the scaled Manhattan Distance
+        return bestFirstSearch(start, goal, m, trace, m.getMinCost(), m.getLandmarks(landmarkCount));
+    }
+
+    /**
+     * Method to run a best-first search ordered by cumulative cost (+ heuristic when enabled)
+     * Uses an indexed heap with decrease-key so each node is queued at most once
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
+     * @param heuristicScale is the weight of the Manhattan Distance to goal added to the priority (0 for none)
+     * @param landmarks is the landmark table giving the estimate instead (null to use the Manhattan Distance)
+     * @return a PathResult object with result
+     */
+    private static PathResult bestFirstSearch(Node start, Node goal, Maze m, SearchTrace trace,
+                                              int heuristicScale, LandmarkTable landmarks) {
+        // Setup Workspace (Cost, Visited and Parent Arrays) and Priority Queue
+        SearchWorkspace ws = SearchWorkspace.acquire(m.getSize());
+        IndexedMinHeap pQueue = ws.getHeap();
+        int goalIndex = m.getIndex(goal);
+        int[] neighbors = new int[4];
 
-        // Setup Visited Node Set
-        HashSet<Node> visited = new HashSet<>();
+        // Add Start to Priority Queue
+        int startIndex = m.getIndex(start);
+        ws.reach(startIndex, 0, NO_PARENT);
+        pQueue.insertOrDecrease(startIndex, 0);
 
-        // UCS
-        while(!npPQueue.isEmpty()) {
+        while(!pQueue.isEmpty()) {
             // Pop from Priority Queue
-            UCSNodePath pnp = npPQueue.poll();
-            int curCost = pnp.cost();
-            Node curNode = pnp.nodePath().node();
+            int cur = pQueue.poll();
+            ws.visit(cur);
 
             // Check if current node is the goal
-            if(curNode.equals(goal)) {
-                // Get Path Cost
-                int pathCost = m.getCostFromPath(pnp.nodePath().path());
-
-                return new PathResult(
-                        m.getMaze(),
-                        start,
-                        goal,
-                        pnp.nodePath().path(),
-                        m.getExpandedOrder(),
-                        m.getExpanded(),
-                        pathCost
-                );
+            if(cur == goalIndex) {
+                return buildResult(start, goal, ws.parents(), m, trace);
             }
 
-            // Expand Node
-            if(!visited.contains(curNode)) {
-                // Add Node to Visited
-                visited.add(curNode);
-
-                // Get Neighbor Nodes
-                LinkedList<Node> neighbors = m.getNeighbors(curNode, true);
+            // Record Expansion
+            if(trace != null) {
+                trace.onExpand(cur);
+            }
 
-                // Add All Neighbors to Queue
-                for(Node n : neighbors) {
-                    LinkedList<Node> newPath = new LinkedList<>(pnp.nodePath().path());
-                    newPath.add(n);
+            // Get Neighbor Nodes
+            int count = m.getNeighbors(cur, neighbors, true);
 
-                    // Get New Cost for Priority
-                    int newCost = m.getCost(n) + curCost;
+            // Add or Improve All Unvisited Neighbors in Queue
+            for(int i = 0; i < count; i++) {
+                int next = neighbors[i];
+                if(ws.isVisited(next)) {
+                    continue;
+                }
 
-                    // Add To Priority Queue
-                    npPQueue.add(new UCSNodePath(new NodePath(n, newPath), newCost));
+                // Get New Cost for Priority (+ Heuristic Distance to Goal for A*)
+                int newCost = ws.getCost(cur) + m.getCost(next);
+                if(newCost < ws.getCost(next)) {
+                    ws.reach(next, newCost, cur);
+
+                    int priority = newCost;
+                    if(landmarks != null) {
+                        priority += landmarks.getLowerBound(next, goalIndex);
+                    }
+                    else if(heuristicScale > 0) {
+                        priority += heuristicScale * m.getManhattanDistance(next, goalIndex);
+                    }
+                    pQueue.insertOrDecrease(next, priority);
                 }
             }
         }
-
         return null;
     }
 
     /**
-     * Method to run an A* Search Algorithm
-     * This Algorithm utilizes the total cost of each node + a distance-to-goal heuristic
+     * Method to run a Bucket Queue Search (Dial's Algorithm)
+     * Uniform Cost Search for small integer tile costs using a circular array of cost buckets
+     * sized from the maze's maximum cost (A 0-1 BFS deque when all costs are 0 or 1)
      * @param start is the given start node
      * @param goal is the given goal node
      * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
      * @return a PathResult object with result
      */
-    public static PathResult aStarSearch(Node start, Node goal, Maze m) {
-        // Priority Queue - (Cumulative Action Cost + Heuristic)
-        // The Heuristic used in this algorithm is the Manhattan Distance between a Node and the given Goal
+    public static PathResult bucketQueueSearch(Node start, Node goal, Maze m, SearchTrace trace) {
+        // Setup Workspace (Cost, Visited and Parent Arrays) and Bucket Queue
+        SearchWorkspace ws = SearchWorkspace.acquire(m.getSize());
+        BucketQueue bQueue = ws.getBucketQueue(m.getMaxCost());
+        int goalIndex = m.getIndex(goal);
+        int[] neighbors = new int[4];
+
+        // Add Start to Bucket Queue
+        int startIndex = m.getIndex(start);
+        ws.reach(startIndex, 0, NO_PARENT);
+        bQueue.push(startIndex, 0);
+
+        while(!bQueue.isEmpty()) {
+            // Pop from Bucket Queue (Skip entries already settled at a lower cost)
+            int cur = bQueue.poll();
+            if(ws.isVisited(cur)) {
+                continue;
+            }
+            ws.visit(cur);
 
-        // Record for Storing NodePath and Priority Cost
-        record AStarNodePath(NodePath nodePath, int cost, int heuristic) {}
+            // Check if current node is the goal
+            if(cur == goalIndex) {
+                return buildResult(start, goal, ws.parents(), m, trace);
+            }
 
-        // Setup Priority Queue
-        PriorityQueue<AStarNodePath> npPQueue = new PriorityQueue<>(Comparator.comparingInt(o -> (o.cost() + o.heuristic())));
+            // Record Expansion
+            if(trace != null) {
+                trace.onExpand(cur);
+            }
 
-        // Add Start to Priority Queue
-        LinkedList<Node> path = new LinkedList<>();
-        path.add(start);
-        npPQueue.add(new AStarNodePath(new NodePath(start, path), 0, 0));
+            // Get Neighbor Nodes
+            int count = m.getNeighbors(cur, neighbors, true);
+
+            // Add All Improved Neighbors to Queue
+            for(int i = 0; i < count; i++) {
+                int next = neighbors[i];
+                int newCost = ws.getCost(cur) + m.getCost(next);
+
+                if(!ws.isVisited(next) && newCost < ws.getCost(next)) {
+                    ws.reach(next, newCost, cur);
+                    bQueue.push(next, newCost);
+                }
+            }
+        }
+        return null;
+    }
 
-        // Setup Visited Node Set
-        HashSet<Node> visited = new HashSet<>();
+    /**
+     * Method to run a Jump Point Search Algorithm (4-Connected)
+     * A* that jumps in straight lines over runs of equal-cost tiles and only expands jump points:
+     * tiles with a forced neighbor, tiles bordering a different cost, and the goal
+     * Tiles of a different cost are treated as obstacles when detecting forced neighbors,
+     * so symmetric paths are pruned inside every uniform-cost region of a weighted maze
+     * The Heuristic is the Manhattan Distance scaled by the smallest tile cost
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
+     * @return a PathResult object with result (Path includes every tile between jump points)
+     */
+    public static PathResult jumpPointSearch(Node start, Node goal, Maze m, SearchTrace trace) {
+        // Setup Workspace (Cost, Visited and Jump Parent Arrays) and Priority Queue
+        SearchWorkspace ws = SearchWorkspace.acquire(m.getSize());
+        IndexedMinHeap pQueue = ws.getHeap();
+        int goalIndex = m.getIndex(goal);
+        int width = m.getWidth();
+        int minCost = m.getMinCost();
+        int[] neighbors = new int[4];
 
-        // A* Search
-        while(!npPQueue.isEmpty()) {
+        // Add Start to Priority Queue
+        int startIndex = m.getIndex(start);
+        ws.reach(startIndex, 0, NO_PARENT);
+        pQueue.insertOrDecrease(startIndex, 0);
+
+        while(!pQueue.isEmpty()) {
             // Pop from Priority Queue
-            AStarNodePath pnp = npPQueue.poll();
-            int curCost = pnp.cost();
-            Node curNode = pnp.nodePath().node();
+            int cur = pQueue.poll();
+            ws.visit(cur);
 
             // Check if current node is the goal
-            if(curNode.equals(goal)) {
-                // Get Path Cost
-                int pathCost = m.getCostFromPath(pnp.nodePath().path());
+            if(cur == goalIndex) {
+                return buildResultFromTiles(start, goal, expandJumpPath(goalIndex, ws.parents(), m), m, trace);
+            }
 
-                return new PathResult(
-                        m.getMaze(),
-                        start,
-                        goal,
-                        pnp.nodePath().path(),
-                        m.getExpandedOrder(),
-                        m.getExpanded(),
-                        pathCost
-                );
+            // Record Expansion (Only jump points are expanded)
+            if(trace != null) {
+                trace.onExpand(cur);
             }
 
-            // Expand Node
-            if(!visited.contains(curNode)) {
-                // Add Node to Visited
-                visited.add(curNode);
+            // Get Neighbor Nodes
+            int count = m.getNeighbors(cur, neighbors, false);
+            int from = ws.getParent(cur);
+
+            int back = from == NO_PARENT ? 0 : -getStep(from, cur, width);
+
+            // Jump in every direction except straight back towards the parent jump point
+            for(int i = 0; i < count; i++) {
+                int step = neighbors[i] - cur;
+                if(step == back) {
+                    continue;
+                }
+
+                // Direction from the neighbor's position (An index step of 1 is vertical when the width is 1)
+                int dRow = neighbors[i] / width - cur / width;
+                int dCol = neighbors[i] % width - cur % width;
+                int jumpPoint = jump(cur, dRow, dCol, goalIndex, m);
+                if(jumpPoint == NO_PARENT || ws.isVisited(jumpPoint)) {
+                    continue;
+                }
+
+                // Cost of every tile entered along the jump
+                int newCost = ws.getCost(cur);
+                for(int tile = cur + step; tile != jumpPoint + step; tile += step) {
+                    newCost += m.getCost(tile);
+                }
+
+                if(newCost < ws.getCost(jumpPoint)) {
+                    ws.reach(jumpPoint, newCost, cur);
+
+                    int heuristic = minCost * m.getManhattanDistance(jumpPoint, goalIndex);
+                    pQueue.insertOrDecrease(jumpPoint, newCost + heuristic);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to jump from a tile in a straight line until a jump point is found
+     * Vertical jumps also scan horizontally from every tile passed, stopping if either scan finds a jump point
+     * @param from is the tile index to jump from
+     * @param dRow is the row step of the jump direction (-1, 0 or 1)
+     * @param dCol is the column step of the jump direction (-1, 0 or 1)
+     * @param goal is the goal tile index
+     * @param m is the maze to search through
+     * @return tile index of the jump point or NO_PARENT if the jump runs into a wall or the edge
+     */
+    private static int jump(int from, int dRow, int dCol, int goal, Maze m) {
+        int width = m.getWidth();
+        boolean vertical = dRow != 0;
+        int step = dRow * width + dCol;
+        int regionCost = -1; // Cost of the uniform region being jumped through
+
+        int cur = from;
+        int row = from / width;
+        int col = from % width;
+        while(true) {
+            row += dRow;
+            col += dCol;
+            if(!isInBounds(row, col, m) || !m.isOpen(cur + step)) {
+                return NO_PARENT;
+            }
+            cur += step;
+
+            if(cur == goal) {
+                return cur;
+            }
+
+            // Stop on entering a different cost region
+            int tileCost = m.getCost(cur);
+            if(regionCost == -1) {
+                regionCost = tileCost;
+            }
+            else if(tileCost != regionCost) {
+                return cur;
+            }
+
+            // Forced Neighbors - an open side tile that cannot be reached more cheaply from behind
+            // (Side directions are the jump direction turned both ways: (dCol, dRow) and its opposite)
+            for(int turn = -1; turn <= 1; turn += 2) {
+                int sideRow = row + turn * dCol;
+                int sideCol = col + turn * dRow;
+                int sideTile = sideRow * width + sideCol;
+                if(isInBounds(sideRow, sideCol, m) && m.isOpen(sideTile)) {
+                    int behind = sideTile - step;
+                    boolean behindSame = isInBounds(sideRow - dRow, sideCol - dCol, m) && m.isOpen(behind)
+                            && m.getCost(behind) == regionCost;
+                    if(m.getCost(sideTile) != regionCost || !behindSame) {
+                        return cur;
+                    }
+                }
+            }
+
+            // Vertical jumps stop where a horizontal scan finds a jump point
+            if(vertical && (jump(cur, 0, 1, goal, m) != NO_PARENT || jump(cur, 0, -1, goal, m) != NO_PARENT)) {
+                return cur;
+            }
+        }
+    }
+
+    /**
+     * Method to check that a tile position is inside the maze
+     * @param row is the tile row
+     * @param col is the tile column
+     * @param m is the maze
+     * @return if the position is inside the maze
+     */
+    private static boolean isInBounds(int row, int col, Maze m) {
+        return row >= 0 && row < m.getHeight() && col >= 0 && col < m.getWidth();
+    }
+
+    /**
+     * Method to expand a chain of jump point parents into every tile of the path
+     * Consecutive jump points share a row or column, so each segment is walked with a single index step
+     * @param goal is the goal tile index
+     * @param jumpParent is the parent jump point of every reached jump point (NO_PARENT for the start)
+     * @param m is the maze that was searched
+     * @return tile indexes of the path from start to goal
+     */
+    private static int[] expandJumpPath(int goal, int[] jumpParent, Maze m) {
+        int width = m.getWidth();
+
+        // Count the path tiles (Each segment adds its length, the start adds one)
+        int length = 1;
+        for(int cur = goal; jumpParent[cur] != NO_PARENT; cur = jumpParent[cur]) {
+            int from = jumpParent[cur];
+            length += (cur - from) / getStep(from, cur, width);
+        }
+
+        // Walk back along each straight segment, filling the path from its end
+        int[] tiles = new int[length];
+        int i = length;
+        int cur = goal;
+        while(jumpParent[cur] != NO_PARENT) {
+            int from = jumpParent[cur];
+            int step = getStep(from, cur, width);
+            for(int tile = cur; tile != from; tile -= step) {
+                tiles[--i] = tile;
+            }
+            cur = from;
+        }
+        tiles[--i] = cur; // Start
+        return tiles;
+    }
+
+    /**
+     * Method to get the unit index step from one tile towards another on the same row or column
+     * @param from is the first tile index
+     * @param to is the second tile index (Same row or column as from)
+     * @param width is the maze width
+     * @return +-1 for a horizontal step or +-width for a vertical step
+     */
+    private static int getStep(int from, int to, int width) {
+        int diff = to - from;
+        return Math.abs(diff) < width ? Integer.signum(diff) : Integer.signum(diff) * width;
+    }
+
+    /**
+     * Method to run a Hierarchical A* Search (HPA*) with the default cluster size
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param m is the maze to search through
+     * @param trace is the trace to record expanded abstract nodes into (null to disable tracing)
+     * @return a PathResult object with result (Near-optimal)
+     */
+    public static PathResult hierarchicalSearch(Node start, Node goal, Maze m, SearchTrace trace) {
+        return hierarchicalSearch(start, goal, m, DEFAULT_CLUSTER_SIZE, trace);
+    }
+
+    /**
+     * Method to run a Hierarchical A* Search (HPA*)
+     * Searches the maze's cluster abstraction (Built once per maze and cluster size, see ClusterGraph)
+     * and refines the abstract path to tiles. Only the abstract nodes are expanded, so large mazes
+     * are searched far faster than flat A* at the price of paths that may be slightly longer
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param m is the maze to search through
+     * @param clusterSize is the side length of each square cluster in tiles
+     * @param trace is the trace to record expanded abstract nodes into (null to disable tracing)
+     * @return a PathResult object with result (Near-optimal)
+     */
+    public static PathResult hierarchicalSearch(Node start, Node goal, Maze m, int clusterSize, SearchTrace trace) {
+        ClusterGraph graph = m.getClusterGraph(clusterSize);
+
+        int[] tiles = graph.findPath(m.getIndex(start), m.getIndex(goal), trace);
+        if(tiles == null) {
+            return null;
+        }
+        return buildResultFromTiles(start, goal, Arrays.copyOf(tiles, removeLoops(tiles, tiles.length)), m, trace);
+    }
+
+    /**
+     * Method to run a Bidirectional Breadth First Search Pathfinding Algorithm
+     * Searches layer by layer from both the start and the goal, always growing the smaller frontier,
+     * and stops after the layer in which the two searches first meet
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
+     * @return a PathResult object with result
+     */
+    public static PathResult bidirectionalBreadthFirstSearch(Node start, Node goal, Maze m, SearchTrace trace) {
+        int size = m.getSize();
+
+        // Setup Workspaces (Forward, Backward) holding each side's Distance and Parent Arrays
+        SearchWorkspace[] ws = {SearchWorkspace.acquire(FORWARD, size), SearchWorkspace.acquire(BACKWARD, size)};
+        int[] neighbors = new int[4];
+
+        // Setup Queues - each node is queued at most once per side
+        int[][] queue = {ws[FORWARD].getQueue(size), ws[BACKWARD].getQueue(size)};
+        int[] head = new int[2];
+        int[] tail = new int[2];
+
+        // Add Start and Goal to their Queues
+        int[] origin = {m.getIndex(start), m.getIndex(goal)};
+        for(int side = FORWARD; side <= BACKWARD; side++) {
+            queue[side][tail[side]++] = origin[side];
+            ws[side].reach(origin[side], 0, NO_PARENT);
+        }
+
+        // Start is the Goal - the path is the start alone (As in BFS, without expanding either side)
+        if(origin[FORWARD] == origin[BACKWARD]) {
+            return buildResult(start, goal, ws[FORWARD].parents(), m, trace);
+        }
+
+        int meet = NO_PARENT;
+        int best = Integer.MAX_VALUE;
+
+        // Bidirectional BFS
+        while(meet == NO_PARENT && head[FORWARD] < tail[FORWARD] && head[BACKWARD] < tail[BACKWARD]) {
+            // Expand one full layer of the smaller frontier
+            int side = (tail[FORWARD] - head[FORWARD]) <= (tail[BACKWARD] - head[BACKWARD]) ? FORWARD : BACKWARD;
+            int other = 1 - side;
+            int layerEnd = tail[side];
+
+            while(head[side] < layerEnd) {
+                // Dequeue Node
+                int cur = queue[side][head[side]++];
+
+                // Record Expansion
+                if(trace != null) {
+                    trace.onExpand(cur);
+                }
 
                 // Get Neighbor Nodes
-                LinkedList<Node> neighbors = m.getNeighbors(curNode, true);
+                int count = m.getNeighbors(cur, neighbors, true);
+
+                for(int i = 0; i < count; i++) {
+                    int next = neighbors[i];
+                    if(ws[side].isReached(next)) {
+                        continue;
+                    }
+                    int dist = ws[side].getCost(cur) + 1;
+                    ws[side].reach(next, dist, cur);
+                    queue[side][tail[side]++] = next;
+
+                    // Check if the other search has already reached this node
+                    if(ws[other].isReached(next) && dist + ws[other].getCost(next) < best) {
+                        best = dist + ws[other].getCost(next);
+                        meet = next;
+                    }
+                }
+            }
+        }
 
-                // Add All Neighbors to Queue
-                for(Node n : neighbors) {
-                    LinkedList<Node> newPath = new LinkedList<>(pnp.nodePath().path());
-                    newPath.add(n);
+        if(meet == NO_PARENT) {
+            return null;
+        }
+        return buildResultFromTiles(start, goal, joinPaths(meet, ws[FORWARD].parents(), ws[BACKWARD].parents()), m, trace);
+    }
+
+    /**
+     * Method to run a Bidirectional A* Search Algorithm
+     * Runs A* forward from the start and backward from the goal, growing the smaller open set each step
+     * Moving into a tile costs that tile, so the backward search charges cost(v) for stepping from v back to a neighbor
+     * Both heuristics are the Manhattan Distance scaled by the smallest tile cost (Consistent),
+     * and the search stops once the best meeting cost is no larger than the smallest priority of either open set
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param m is the maze to search through
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
+     * @return a PathResult object with result
+     */
+    public static PathResult bidirectionalAStarSearch(Node start, Node goal, Maze m, SearchTrace trace) {
+        int size = m.getSize();
+        int minCost = m.getMinCost();
+
+        // Setup Workspaces (Forward, Backward) holding each side's Cost, Visited and Parent Arrays
+        SearchWorkspace[] ws = {SearchWorkspace.acquire(FORWARD, size), SearchWorkspace.acquire(BACKWARD, size)};
+        IndexedMinHeap[] pQueue = {ws[FORWARD].getHeap(), ws[BACKWARD].getHeap()};
+        int[] neighbors = new int[4];
+
+        // Add Start and Goal to their Queues (Each side heads towards the other's origin)
+        int[] origin = {m.getIndex(start), m.getIndex(goal)};
+        for(int side = FORWARD; side <= BACKWARD; side++) {
+            ws[side].reach(origin[side], 0, NO_PARENT);
+            pQueue[side].insertOrDecrease(origin[side], (long) minCost * m.getManhattanDistance(origin[side], origin[1 - side]));
+        }
+
+        // Start is the Goal - the path is the start alone (As in A*, without expanding either side)
+        if(origin[FORWARD] == origin[BACKWARD]) {
+            return buildResult(start, goal, ws[FORWARD].parents(), m, trace);
+        }
+
+        int meet = NO_PARENT;
+        long best = Long.MAX_VALUE;
+
+        // Bidirectional A* Search
+        while(!pQueue[FORWARD].isEmpty() && !pQueue[BACKWARD].isEmpty()) {
+            // Stop once no unexplored path can beat the best meeting
+            if(best <= Math.max(pQueue[FORWARD].peekKey(), pQueue[BACKWARD].peekKey())) {
+                break;
+            }
+
+            // Grow the smaller open set
+            int side = pQueue[FORWARD].size() <= pQueue[BACKWARD].size() ? FORWARD : BACKWARD;
+            int other = 1 - side;
+
+            // Pop from Priority Queue
+            int cur = pQueue[side].poll();
+            ws[side].visit(cur);
 
-                    // Get New Cost for Priority = Total Cost + Heuristic Distance to Goal
-                    int newCost = m.getCost(n) + curCost;
-                    int newHeuristic = m.getManhattanDistance(n, goal);
+            // Record Expansion
+            if(trace != null) {
+                trace.onExpand(cur);
+            }
+
+            // Get Neighbor Nodes
+            int count = m.getNeighbors(cur, neighbors, true);
 
-                    // Add To Priority Queue
-                    npPQueue.add(new AStarNodePath(new NodePath(n, newPath), newCost, newHeuristic));
+            for(int i = 0; i < count; i++) {
+                int next = neighbors[i];
+                if(ws[side].isVisited(next)) {
+                    continue;
+                }
+
+                // Forward pays for entering next, Backward pays for entering cur (from next)
+                int newCost = ws[side].getCost(cur) + (side == FORWARD ? m.getCost(next) : m.getCost(cur));
+                if(newCost < ws[side].getCost(next)) {
+                    ws[side].reach(next, newCost, cur);
+
+                    int heuristic = minCost * m.getManhattanDistance(next, origin[other]);
+                    pQueue[side].insertOrDecrease(next, (long) newCost + heuristic);
+
+                    // Check if the other search has already reached this node
+                    if(ws[other].isReached(next) && (long) newCost + ws[other].getCost(next) < best) {
+                        best = (long) newCost + ws[other].getCost(next);
+                        meet = next;
+                    }
                 }
             }
+        }
 
+        if(meet == NO_PARENT) {
+            return null;
         }
-        return null;
+        return buildResultFromTiles(start, goal, joinPaths(meet, ws[FORWARD].parents(), ws[BACKWARD].parents()), m, trace);
+    }
+
+    /**
+     * Method to join a forward and a backward search tree at their meeting node into one path
+     * Any loop through a zero cost region (A tile reached by both halves) is cut out of the path
+     * @param meet is the meeting tile index
+     * @param forwardParent is the parent of every node reached from the start (NO_PARENT for the start)
+     * @param backwardParent is the parent of every node reached from the goal (NO_PARENT for the goal)
+     * @return tile indexes of the joined path from start to goal
+     */
+    private static int[] joinPaths(int meet, int[] forwardParent, int[] backwardParent) {
+        // Collect the forward half (meet -> start), then reverse it
+        int[] tiles = new int[16];
+        int length = 0;
+        for(int cur = meet; cur != NO_PARENT; cur = forwardParent[cur]) {
+            if(length == tiles.length) {
+                tiles = Arrays.copyOf(tiles, length * 2);
+            }
+            tiles[length++] = cur;
+        }
+        for(int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = tiles[i];
+            tiles[i] = tiles[j];
+            tiles[j] = tmp;
+        }
+
+        // Append the backward half (meet -> goal)
+        for(int cur = backwardParent[meet]; cur != NO_PARENT; cur = backwardParent[cur]) {
+            if(length == tiles.length) {
+                tiles = Arrays.copyOf(tiles, length * 2);
+            }
+            tiles[length++] = cur;
+        }
+
+        return Arrays.copyOf(tiles, removeLoops(tiles, length));
+    }
+
+    /**
+     * Method to cut loops out of a sequence of tiles, cutting back to the first visit of a repeated tile
+     * Positions are kept in a primitive open-addressing table sized by the path, so no maze-sized array is needed;
+     * entries of cut tiles are left in place and recognised as stale by checking the tile at their position
+     * @param tiles is the given array of tile indexes from start to goal (The loop-free path is moved to its front)
+     * @param length is the number of tiles in the sequence
+     * @return number of tiles in the loop-free path
+     */
+    private static int removeLoops(int[] tiles, int length) {
+        int capacity = Integer.highestOneBit(Math.max(2, length)) << 2; // Under half full
+        int mask = capacity - 1;
+        int shift = Integer.numberOfLeadingZeros(capacity) + 1; // Keeps the top log2(capacity) bits of a hash
+        int[] keys = new int[capacity];
+        int[] positions = new int[capacity];
+        Arrays.fill(keys, NO_PARENT);
+
+        int pathLength = 0;
+        for(int i = 0; i < length; i++) {
+            int tile = tiles[i];
+
+            // Probe for the tile's slot (Its entry, or the empty slot it goes in)
+            int slot = (tile * 0x9E3779B9) >>> shift;
+            while(keys[slot] != NO_PARENT && keys[slot] != tile) {
+                slot = (slot + 1) & mask;
+            }
+
+            int first = positions[slot];
+            if(keys[slot] == tile && first < pathLength && tiles[first] == tile) {
+                // Loop - drop everything after the first visit
+                pathLength = first + 1;
+                continue;
+            }
+            keys[slot] = tile;
+            positions[slot] = pathLength;
+            tiles[pathLength++] = tile;
+        }
+        return pathLength;
+    }
+
+    // *** Path Utilities ***
+    private static final int NO_PARENT = -1; // Parent index of the start node
+    private static final int FORWARD = 0; // Search side growing from the start
+    private static final int BACKWARD = 1; // Search side growing from the goal
+    private static final int DEFAULT_CLUSTER_SIZE = 10; // HPA* cluster side length in tiles
+    private static final int DEFAULT_LANDMARKS = 8; // ALT landmark count
+
+    /**
+     * Method to rebuild the path to the goal by following the recorded parent of each node
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param parent is the parent index of every reached node (NO_PARENT for the start)
+     * @param m is the maze that was searched
+     * @param trace is the trace of expanded nodes (null if not recorded)
+     * @return a PathResult object with the rebuilt path
+     */
+    static PathResult buildResult(Node start, Node goal, int[] parent, Maze m, SearchTrace trace) {
+        NodePath np = buildNodePath(m.getIndex(goal), parent, m);
+        int pathCost = m.getCostFromPath(np.path());
+
+        return new PathResult(
+                m,
+                start,
+                goal,
+                np.path(),
+                trace != null ? trace.toExpansionTrace() : ExpansionTrace.EMPTY,
+                pathCost
+        );
+    }
+
+    /**
+     * Method to build the result of a path given as its tiles in order
+     * @param start is the given start node
+     * @param goal is the given goal node
+     * @param tiles is the tile index of every path node from start to goal (Each adjacent to the one before)
+     * @param m is the maze that was searched
+     * @param trace is the trace of expanded nodes (null if not recorded)
+     * @return a PathResult object with the path
+     */
+    private static PathResult buildResultFromTiles(Node start, Node goal, int[] tiles, Maze m, SearchTrace trace) {
+        LinkedList<Node> path = new LinkedList<>();
+        int width = m.getWidth();
+
+        for(int i = 0; i < tiles.length; i++) {
+            Node n = m.getNode(tiles[i]);
+            if(i > 0) {
+                n.setDirection(getDirection(tiles[i - 1], tiles[i], width));
+            }
+            path.add(n);
+        }
+
+        return new PathResult(
+                m,
+                start,
+                goal,
+                path,
+                trace != null ? trace.toExpansionTrace() : ExpansionTrace.EMPTY,
+                m.getCostFromPath(path)
+        );
+    }
+
+    /**
+     * Method to rebuild the path ending at the given node index
+     * Each node in the path holds the direction it was entered from
+     * @param end is the index of the last node in the path
+     * @param parent is the parent index of every reached node (NO_PARENT for the start)
+     * @param m is the maze that was searched
+     * @return NodePath of the end node and the full path from the start
+     */
+    private static NodePath buildNodePath(int end, int[] parent, Maze m) {
+        LinkedList<Node> path = new LinkedList<>();
+        int width = m.getWidth();
+
+        for(int cur = end; cur != NO_PARENT; cur = parent[cur]) {
+            Node n = m.getNode(cur);
+
+            int prev = parent[cur];
+            if(prev != NO_PARENT) {
+                n.setDirection(getDirection(prev, cur, width));
+            }
+            path.addFirst(n);
+        }
+        return new NodePath(path.getLast(), path);
+    }
+
+    /**
+     * Method to get the direction moved between two adjacent node indexes
+     * @param from is the index moved out of
+     * @param to is the index moved into
+     * @param width is the maze width
+     * @return Node direction of the move
+     */
+    private static int getDirection(int from, int to, int width) {
+        if(to == from - width) {
+            return Node.NORTH;
+        }
+        if(to == from + width) {
+            return Node.SOUTH;
+        }
+        if(to == from + 1) {
+            return Node.EAST;
+        }
+        return Node.WEST;
     }
 
     /* TO ADD A NEW ALGORITHM
@@ -294,8 +906,14 @@ public class PathAlgorithms {
     // *** Algorithm Utilities ***
     private static final String DFS = "Depth First Search";
     private static final String BFS = "Breadth First Search";
+    private static final String BI_BFS = "Bidirectional BFS";
     private static final String UCS = "Uniform Cost Search";
+    private static final String DIAL = "Bucket Queue Search (Dial)";
     private static final String A_STAR = "A* Search";
+    private static final String ALT = "A* Search (Landmarks)";
+    private static final String BI_A_STAR = "Bidirectional A* Search";
+    private static final String JPS = "Jump Point Search";
+    private static final String HPA_STAR = "Hierarchical A* (HPA*)";
 
 
     /**
@@ -303,11 +921,11 @@ public class PathAlgorithms {
      * @return String Array of Algorithm names
      */
     public static String[] getAlgorithmList() {
-        return new String[]{DFS, BFS, UCS, A_STAR};
+        return new String[]{DFS, BFS, BI_BFS, UCS, DIAL, A_STAR, ALT, BI_A_STAR, JPS, HPA_STAR};
     }
 
     /**
-     * Method to run the given algorithm on the given maze
+     * Method to run the given algorithm on the given maze, recording its expanded nodes
      * @param algorithm is the given algorithm
      * @param start is the start node
      * @param goal is the goal node
@@ -315,20 +933,77 @@ public class PathAlgorithms {
      * @return Result of Given Algorithm
      */
     public static PathResult runAlgorithm(String algorithm, Node start, Node goal, Maze maze) {
+        return runAlgorithm(algorithm, start, goal, maze, new SearchTrace(maze));
+    }
+
+    /**
+     * Method to run the given algorithm on the given maze
+     * @param algorithm is the given algorithm
+     * @param start is the start node
+     * @param goal is the goal node
+     * @param maze given maze
+     * @param trace is the trace to record expanded nodes into (null to disable tracing)
+     * @return Result of Given Algorithm (null without searching if the goal cannot be reached)
+     */
+    public static PathResult runAlgorithm(String algorithm, Node start, Node goal, Maze maze, SearchTrace trace) {
+        // Unreachable Goal - answered from the maze's component labels without searching
+        if(!maze.isConnected(start, goal)) {
+            return null;
+        }
+
         switch (algorithm) {
             case DFS -> {
-                return depthFirstSearch(start, goal, maze);
+                return depthFirstSearch(start, goal, maze, trace);
             }
             case BFS -> {
-                return breadthFirstSearch(start, goal, maze);
+                return breadthFirstSearch(start, goal, maze, trace);
+            }
+            case BI_BFS -> {
+                return bidirectionalBreadthFirstSearch(start, goal, maze, trace);
             }
             case UCS -> {
-                return uniformCostSearch(start, goal, maze);
+                return uniformCostSearch(start, goal, maze, trace);
+            }
+            case DIAL -> {
+                return bucketQueueSearch(start, goal, maze, trace);
             }
             case A_STAR -> {
-                return aStarSearch(start, goal, maze);
+                return aStarSearch(start, goal, maze, trace);
+            }
+            case ALT -> {
+                return landmarkAStarSearch(start, goal, maze, trace);
+            }
+            case BI_A_STAR -> {
+                return bidirectionalAStarSearch(start, goal, maze, trace);
+            }
+            case JPS -> {
+                return jumpPointSearch(start, goal, maze, trace);
+            }
+            case HPA_STAR -> {
+                return hierarchicalSearch(start, goal, maze, trace);
             }
         }
         return null;
     }
+
+    /**
+     * Method to run the given algorithm for a batch of queries on one shared maze
+     * Queries are split across all cores (Fork/Join common pool), each worker thread using its own SearchWorkspace
+     * @param algorithm is the given algorithm
+     * @param queries is the list of start and goal pairs
+     * @param maze given maze (Shared by every query)
+     * @param keepTraces is whether each result records its expanded nodes
+     * @return Results in the same order as the queries (null entries where no path exists)
+     */
+    public static List<PathResult> runBatch(String algorithm, List<PathQuery> queries, Maze maze, boolean keepTraces) {
+        PathQuery[] batch = queries.toArray(new PathQuery[0]);
+        PathResult[] results = new PathResult[batch.length];
+
+        IntStream.range(0, batch.length).parallel().forEach(i -> {
+            SearchTrace trace = keepTraces ? new SearchTrace(maze) : null;
+            results[i] = runAlgorithm(algorithm, batch[i].start(), batch[i].goal(), maze, trace);
+        });
+
+        return Arrays.asList(results);
+    }
 }
@@ -0,0 +1,252 @@
+package maze;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Class - Bounded LRU cache of path results keyed by (maze version, algorithm, start, goal)
+ * A Maze is immutable and every instance gets its own version, so a changed maze never hits
+ * entries of the old one (Old entries age out, or can be dropped at once with invalidate)
+ *
+ * Entries keep only the path as tile indexes and the read-only expansion trace, never the Maze or its Nodes,
+ * and every caller gets its own PathResult with fresh Nodes, so changing a returned path never changes the cache.
+ * The cache is bounded by weight (Ints held by the cached paths and traces) rather than by entry count,
+ * since one trace of a large maze can outweigh thousands of small ones
+ *
+ * Searches run outside the cache lock, so two threads missing on the same key may both search
+ */
+public class PathCache {
+    public static final long DEFAULT_MAX_WEIGHT = 1L << 24; // About 64MB of cached paths and traces
+
+    private static final PathCache SHARED = new PathCache(DEFAULT_MAX_WEIGHT);
+
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Entry> entries;
+    private long weight; // Total weight of the cached entries
+    private long hits;
+    private long misses;
+
+    /**
+     * Record - Cache key of one query
+     * @param mazeVersion is the version of the searched maze
+     * @param algorithm is the algorithm name
+     * @param start is the start tile index
+     * @param goal is the goal tile index
+     */
+    private record Key(long mazeVersion, String algorithm, int start, int goal) {}
+
+    /**
+     * Record - Cached result of one query (path and directions are null if no path exists)
+     * @param path is the tile index of each path node
+     * @param directions is the direction of each path node (As stored in the PathResult)
+     * @param expandedOrder is the read-only expansion trace of the search
+     * @param pathCost is the total cost of the path
+     * @param weight is the weight of the entry in ints
+     */
+    private record Entry(int[] path, byte[] directions, ExpansionTrace expandedOrder, int pathCost, long weight) {}
+
+    /**
+     * Constructor - Create an empty cache holding results up to a total weight
+     * @param maxWeight is the maximum total weight (Ints held by cached paths and traces)
+     */
+    public PathCache(long maxWeight) {
+        if(maxWeight < 1) {
+            throw new IllegalArgumentException("Cache weight must be at least 1: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+
+        // Access-ordered map - the eldest entry is the least recently used
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Method to get the cache shared by Maze.runAlgorithm and the Pathfinder windows
+     * @return shared path cache
+     */
+    public static PathCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Method to get the result of a query, running the search only if it is not cached
+     * On a hit the cached expansions are replayed into the given trace (If any)
+     * @param maze is the maze to search through
+     * @param algorithm is the algorithm string
+     * @param start is the start node
+     * @param goal is the goal node
+     * @param trace is the trace to record expanded nodes into (null to skip replaying a hit)
+     * @return the PathResult of the query (null if no path exists or either node is outside the maze)
+     */
+    public PathResult runAlgorithm(Maze maze, String algorithm, Node start, Node goal, SearchTrace trace) {
+        // Outside Nodes - their index would alias a tile inside the maze, so they are never cached
+        if(!maze.isValidNode(start) || !maze.isValidNode(goal)) {
+            return null;
+        }
+
+        Key key = new Key(maze.getVersion(), algorithm, maze.getIndex(start), maze.getIndex(goal));
+
+        Entry entry;
+        synchronized(this) {
+            entry = entries.get(key);
+            if(entry != null) {
+                hits++;
+            }
+            else {
+                misses++;
+            }
+        }
+
+        // Hit - replay expansions for callers that display them
+        if(entry != null) {
+            if(entry.path() == null) {
+                return null;
+            }
+            if(trace != null) {
+                ExpansionTrace expansions = entry.expandedOrder();
+                for(int i = 0; i < expansions.size(); i++) {
+                    trace.onExpand(expansions.get(i));
+                }
+            }
+            return toResult(entry, maze, start, goal);
+        }
+
+        // Miss - search with a trace so later callers can replay it
+        PathResult result = PathAlgorithms.runAlgorithm(algorithm, start, goal, maze,
+                trace != null ? trace : new SearchTrace(maze));
+        put(key, toEntry(result, maze));
+        return result;
+    }
+
+    /**
+     * Method to add an entry, dropping least recently used entries until the cache fits its weight
+     * An entry heavier than the whole cache is not kept
+     * @param key is the query key
+     * @param entry is the entry to add
+     */
+    private synchronized void put(Key key, Entry entry) {
+        if(entry.weight() > maxWeight) {
+            return;
+        }
+        Entry old = entries.put(key, entry);
+        weight += entry.weight() - (old != null ? old.weight() : 0);
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while(weight > maxWeight) {
+            weight -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Method to build the compact cache entry of a result (Keeping no reference to the result's Maze or Nodes)
+     * @param result is the path result (null if no path exists)
+     * @param maze is the searched maze
+     * @return cache entry
+     */
+    private static Entry toEntry(PathResult result, Maze maze) {
+        if(result == null) {
+            return new Entry(null, null, null, 0, 1);
+        }
+        int[] path = new int[result.path().size()];
+        byte[] directions = new byte[path.length];
+        int i = 0;
+        for(Node n : result.path()) {
+            path[i] = maze.getIndex(n);
+            directions[i++] = (byte) n.getDirection();
+        }
+        long entryWeight = path.length + (path.length + 3) / 4 + result.expandedOrder().getWeight();
+        return new Entry(path, directions, result.expandedOrder(), result.pathCost(), entryWeight);
+    }
+
+    /**
+     * Method to build a new PathResult of a cache entry, with fresh Nodes owned by the caller
+     * @param entry is the cache entry (With a path)
+     * @param maze is the searched maze
+     * @param start is the start node
+     * @param goal is the goal node
+     * @return path result of the entry
+     */
+    private static PathResult toResult(Entry entry, Maze maze, Node start, Node goal) {
+        int[] path = entry.path();
+        byte[] directions = entry.directions();
+        int width = maze.getWidth();
+
+        // The PathResult constructor moves each direction back one node, so each node is given the direction
+        // stored for the node before it (The last two stored directions are always equal)
+        LinkedList<Node> nodes = new LinkedList<>();
+        for(int i = 0; i < path.length; i++) {
+            nodes.add(new Node(path[i] / width, path[i] % width, directions[Math.max(0, i - 1)]));
+        }
+        return new PathResult(maze, start, goal, nodes, entry.expandedOrder(), entry.pathCost());
+    }
+
+    /**
+     * Method to drop every cached result of a given maze
+     * @param maze is the given maze
+     */
+    public synchronized void invalidate(Maze maze) {
+        long version = maze.getVersion();
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while(it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if(e.getKey().mazeVersion() == version) {
+                weight -= e.getValue().weight();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Method to drop every cached result and reset the counters
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    // *** Get Methods ***
+
+    /**
+     * Method to get the maximum total weight of the cached results
+     * @return maximum weight in ints
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Method to get the total weight of the cached results
+     * @return weight in ints
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Method to get the number of cached results
+     * @return cache size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Method to get the number of queries answered from the cache
+     * @return hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Method to get the number of queries that had to run a search
+     * @return miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
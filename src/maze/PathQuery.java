@@ -0,0 +1,6 @@
+package maze;
+
+/**
+ * Record for storing a single Start and Goal pair to be searched
+ */
+public record PathQuery(Node start, Node goal) {}
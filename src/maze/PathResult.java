@@ -1,18 +1,16 @@
 package maze;
 
-import java.util.HashSet;
 import java.util.LinkedList;
 
-public record PathResult(String[][] maze, Node start, Node goal, LinkedList<Node> path,
-                         LinkedList<Node> expandedOrder, HashSet<Node> expanded, int pathCost) {
+public record PathResult(Maze maze, Node start, Node goal, LinkedList<Node> path,
+                         ExpansionTrace expandedOrder, int pathCost) {
     /**
      * Constructor - Creates a pathResult object to store all information to display pathfinder
-     * @param maze          is the 2D String maze
+     * @param maze          is the searched maze
      * @param start         is the start node
      * @param goal          is the goal node
      * @param path          is the found path from start to goal
-     * @param expandedOrder is the order the nodes were expanded
-     * @param expanded is the set of all expanded nodes
+     * @param expandedOrder is the order the nodes were expanded (Also answers if a node was expanded)
      * @param pathCost is the total costHeuristic of the path
      */
     public PathResult {
@@ -36,4 +34,12 @@ public record PathResult(String[][] maze, Node start, Node goal, LinkedList<Node
         }
         return -1;
     }
+
+    /**
+     * Method to return the number of expanded nodes
+     * @return number of expanded nodes (0 if the search was not traced)
+     */
+    public int numExpanded() {
+        return expandedOrder.size();
+    }
 }
@@ -0,0 +1,13 @@
+package maze;
+
+/**
+ * Interface - Receives each newly expanded tile while a search is running
+ * (Called on the searching thread; throwing an unchecked exception aborts the search)
+ */
+public interface SearchListener {
+    /**
+     * Method called when a tile is expanded for the first time
+     * @param index is the expanded tile index
+     */
+    void onExpand(int index);
+}
@@ -0,0 +1,83 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Class - Records the tiles expanded by a single run of a path algorithm
+ * A new trace is created for each search, so one Maze can be searched by many threads at once
+ * Algorithms are given null instead of a trace when expansions should not be recorded
+ * An optional SearchListener is told about each new expansion as it happens (e.g. to stream it to the UI)
+ */
+public class SearchTrace {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int width;
+    private final SearchListener listener;
+
+    // Expanded Tiles
+    private int[] order;
+    private int size;
+    private final BitSet expanded;
+
+    /**
+     * Constructor - Create an empty trace for a search through the given maze
+     * @param maze is the maze that will be searched
+     */
+    public SearchTrace(Maze maze) {
+        this(maze, null);
+    }
+
+    /**
+     * Constructor - Create an empty trace that also forwards each new expansion to a listener
+     * @param maze is the maze that will be searched
+     * @param listener is the listener to notify of new expansions (null for none)
+     */
+    public SearchTrace(Maze maze, SearchListener listener) {
+        this.width = maze.getWidth();
+        this.listener = listener;
+
+        order = new int[INITIAL_CAPACITY];
+        expanded = new BitSet(maze.getSize());
+    }
+
+    /**
+     * Method to record the expansion of the tile at a given index
+     * Tiles already expanded (e.g. by the other side of a bidirectional search) are ignored
+     * @param index is the expanded tile index
+     */
+    public void onExpand(int index) {
+        if(expanded.get(index)) {
+            return;
+        }
+        expanded.set(index);
+
+        if(size == order.length) {
+            order = Arrays.copyOf(order, size * 2);
+        }
+        order[size++] = index;
+
+        if(listener != null) {
+            listener.onExpand(index);
+        }
+    }
+
+    // *** Get Methods ***
+
+    /**
+     * Method to get the number of tiles expanded so far
+     * @return number of expanded tiles
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method to get a read-only snapshot of the expansions recorded so far
+     * (Shares the recorded order, so it costs only a copy of the membership bitset)
+     * @return compact expansion trace
+     */
+    public ExpansionTrace toExpansionTrace() {
+        return new ExpansionTrace(order, size, (BitSet) expanded.clone(), width);
+    }
+}
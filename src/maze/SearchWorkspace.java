@@ -0,0 +1,207 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Class - Reusable per-thread scratch state for the path algorithms
+ * Holds the cost, parent and visited arrays for one search over a maze of up to capacity tiles
+ *
+ * Reached and Visited flags are stored as generation stamps, so starting a new search
+ * only bumps the generation counter instead of clearing or reallocating the arrays
+ * A workspace is only valid until the same slot is acquired again on the same thread
+ */
+public class SearchWorkspace {
+    public static final int SLOTS = 2; // Independent workspaces per thread (e.g. both sides of a bidirectional search)
+
+    private static final ThreadLocal<SearchWorkspace[]> POOL = ThreadLocal.withInitial(() -> new SearchWorkspace[SLOTS]);
+
+    private int[] cost = new int[0]; // Cost of each tile (Valid when reached)
+    private int[] parent = new int[0]; // Parent of each tile (Valid when reached)
+    private int[] reached = new int[0]; // Generation stamp of tiles with a known cost
+    private int[] visited = new int[0]; // Generation stamp of expanded tiles
+    private int generation;
+
+    // Reusable Queues
+    private int[] queue = new int[0];
+    private IndexedMinHeap heap;
+    private BucketQueue bucketQueue;
+
+    /**
+     * Method to get the calling thread's workspace in slot 0, reset for a new search
+     * @param size is the number of tiles in the maze to search
+     * @return a cleared workspace
+     */
+    public static SearchWorkspace acquire(int size) {
+        return acquire(0, size);
+    }
+
+    /**
+     * Method to get the calling thread's workspace in a given slot, reset for a new search
+     * @param slot is the workspace slot (0 to SLOTS-1)
+     * @param size is the number of tiles in the maze to search
+     * @return a cleared workspace
+     */
+    public static SearchWorkspace acquire(int slot, int size) {
+        SearchWorkspace[] workspaces = POOL.get();
+        if(workspaces[slot] == null) {
+            workspaces[slot] = new SearchWorkspace();
+        }
+
+        SearchWorkspace ws = workspaces[slot];
+        ws.begin(size);
+        return ws;
+    }
+
+    /**
+     * Method to start a new search - O(1) unless the maze is larger than any previous one
+     * @param size is the number of tiles in the maze to search
+     */
+    private void begin(int size) {
+        if(size > reached.length) {
+            cost = new int[size];
+            parent = new int[size];
+            reached = new int[size];
+            visited = new int[size];
+            generation = 0;
+        }
+
+        // Wrap around - clear stamps once every 2^31 searches
+        if(generation == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(visited, 0);
+            generation = 0;
+        }
+        generation++;
+
+        if(heap != null) {
+            heap.clear();
+        }
+    }
+
+    // *** Tile State ***
+
+    /**
+     * Method to return if a tile has been given a cost in the current search
+     * @param index is the given tile index
+     * @return if the tile has been reached
+     */
+    public boolean isReached(int index) {
+        return reached[index] == generation;
+    }
+
+    /**
+     * Method to get the cost of a tile in the current search
+     * @param index is the given tile index
+     * @return the tile cost or Integer.MAX_VALUE if not reached
+     */
+    public int getCost(int index) {
+        return reached[index] == generation ? cost[index] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Method to set the cost and parent of a tile, marking it reached
+     * @param index is the given tile index
+     * @param newCost is the tile cost
+     * @param newParent is the parent tile index
+     */
+    public void reach(int index, int newCost, int newParent) {
+        reached[index] = generation;
+        cost[index] = newCost;
+        parent[index] = newParent;
+    }
+
+    /**
+     * Method to set the parent of a tile without changing its reached state
+     * @param index is the given tile index
+     * @param newParent is the parent tile index
+     */
+    public void setParent(int index, int newParent) {
+        parent[index] = newParent;
+    }
+
+    /**
+     * Method to get the parent of a tile (Only meaningful if reached or set this search)
+     * @param index is the given tile index
+     * @return parent tile index
+     */
+    public int getParent(int index) {
+        return parent[index];
+    }
+
+    /**
+     * Method to return if a tile has been expanded in the current search
+     * @param index is the given tile index
+     * @return if the tile has been visited
+     */
+    public boolean isVisited(int index) {
+        return visited[index] == generation;
+    }
+
+    /**
+     * Method to mark a tile as expanded in the current search
+     * @param index is the given tile index
+     */
+    public void visit(int index) {
+        visited[index] = generation;
+    }
+
+    /**
+     * Method to get the raw parent array for path rebuilding
+     * @return parent array (Entries are only valid along parent chains of this search)
+     */
+    int[] parents() {
+        return parent;
+    }
+
+    // *** Reusable Queues ***
+
+    /**
+     * Method to get an int array of at least the given length for use as a queue or stack
+     * @param minLength is the minimum length
+     * @return reusable int array (Contents are undefined)
+     */
+    public int[] getQueue(int minLength) {
+        if(queue.length < minLength) {
+            queue = new int[Math.max(minLength, queue.length * 2)];
+        }
+        return queue;
+    }
+
+    /**
+     * Method to grow the reusable queue array, keeping its contents
+     * @param minLength is the minimum length
+     * @return the grown queue array
+     */
+    public int[] growQueue(int minLength) {
+        if(queue.length < minLength) {
+            queue = Arrays.copyOf(queue, Math.max(minLength, queue.length * 2));
+        }
+        return queue;
+    }
+
+    /**
+     * Method to get an empty indexed heap for tile indexes of this search
+     * @return reusable empty heap
+     */
+    public IndexedMinHeap getHeap() {
+        if(heap == null || heap.capacity() < reached.length) {
+            heap = new IndexedMinHeap(reached.length);
+        }
+        return heap;
+    }
+
+    /**
+     * Method to get an empty bucket queue for the given maximum tile cost
+     * @param maxCost is the largest tile cost in the maze
+     * @return reusable empty bucket queue
+     */
+    public BucketQueue getBucketQueue(int maxCost) {
+        if(bucketQueue == null || bucketQueue.getMaxCost() != maxCost) {
+            bucketQueue = new BucketQueue(maxCost);
+        }
+        else {
+            bucketQueue.clear();
+        }
+        return bucketQueue;
+    }
+}
@@ -13,6 +13,7 @@ public class WhiskyUtils {
 
     /**
      * Method to generate a maze string of given size without walls, printing results
+     * (See MazeGenerator for seeded mazes with walls written straight to a file)
      * @param rows is the given number of rows
      * @param cols is the given number of columns
      */
@@ -0,0 +1,63 @@
+package ui;
+
+import maze.SearchListener;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Class - Append-only buffer of the tiles expanded by a running search, read by the display while it grows
+ * Written by the search thread and read on the Event Dispatch Thread with O(1) access by step:
+ * tile indexes are kept in fixed-size int chunks that never move, and each append publishes the new size
+ * through a volatile write, so a reader sees every step below size()
+ *
+ * The search never waits for the display; interrupting the search thread (Cancel) aborts it at the next expansion
+ */
+public class ExpansionStream implements SearchListener {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private int[][] chunks = new int[4][]; // Only replaced by a larger copy holding the same chunks
+    private volatile int size;
+
+    @Override
+    public void onExpand(int index) {
+        if(Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search Cancelled");
+        }
+
+        int step = size;
+        int chunk = step >>> CHUNK_BITS;
+        if(chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk * 2);
+        }
+        if(chunks[chunk] == null) {
+            chunks[chunk] = new int[CHUNK_SIZE];
+        }
+        chunks[chunk][step & CHUNK_MASK] = index;
+        size = step + 1; // Publishes the step (And any new chunk) to readers
+    }
+
+    // *** Get Methods ***
+
+    /**
+     * Method to get the number of expansions streamed so far
+     * @return number of expansions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method to get the tile index expanded at a given step
+     * @param step is the expansion step (0 to size-1)
+     * @return tile index expanded at the step
+     */
+    public int get(int step) {
+        if(step < 0 || step >= size) {
+            throw new IndexOutOfBoundsException("Step " + step + " out of bounds for stream of size " + size);
+        }
+        return chunks[step >>> CHUNK_BITS][step & CHUNK_MASK];
+    }
+}
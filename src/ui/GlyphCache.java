@@ -0,0 +1,191 @@
+package ui;
+
+import maze.Node;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Class - Pre-rendered tile text and direction arrows for one tile size
+ * Each glyph is rendered once into a small transparent image the first time it is drawn, so drawing a cost,
+ * label or arrow on a tile is a single image blit instead of laying out a string or building a polygon
+ *
+ * Costs below MAX_COST_GLYPHS are kept in an array indexed by cost (No String is made per tile); other texts
+ * are kept by String. Every glyph is dropped when the tile size changes
+ */
+public class GlyphCache {
+    public static final int MAX_COST_GLYPHS = 1024; // Costs with a glyph slot in the cost array
+    public static final int MAX_TEXT_GLYPHS = 256; // Other texts cached before the text glyphs are cleared
+
+    private int tileSize;
+    private final Glyph[] costGlyphs = new Glyph[MAX_COST_GLYPHS];
+    private final HashMap<String, Glyph> textGlyphs = new HashMap<>();
+    private final Glyph[] arrowGlyphs = new Glyph[Node.WEST + 1];
+
+    /**
+     * Record - Pre-rendered image and its offset from the tile origin
+     * @param image is the rendered glyph (Transparent outside the glyph)
+     * @param x is the x offset from the tile origin
+     * @param y is the y offset from the tile origin
+     */
+    private record Glyph(BufferedImage image, int x, int y) {}
+
+    /**
+     * Method to set the tile size of the glyphs, clearing the cache if it changed
+     * @param size is the given tile size
+     */
+    public void setTileSize(int size) {
+        if(size == tileSize) {
+            return;
+        }
+        tileSize = size;
+        Arrays.fill(costGlyphs, null);
+        Arrays.fill(arrowGlyphs, null);
+        textGlyphs.clear();
+    }
+
+    // *** Drawing ***
+
+    /**
+     * Method to draw a tile cost centered in the tile at x,y
+     * @param g2 is the Graphics2D object (Its rendering hints are used to render new glyphs)
+     * @param x is the x coordinate of the tile
+     * @param y is the y coordinate of the tile
+     * @param cost is the cost to draw
+     */
+    public void drawCost(Graphics2D g2, int x, int y, int cost) {
+        if(cost < 0 || cost >= MAX_COST_GLYPHS) {
+            drawText(g2, x, y, Integer.toString(cost));
+            return;
+        }
+        Glyph glyph = costGlyphs[cost];
+        if(glyph == null) {
+            glyph = renderText(g2, Integer.toString(cost));
+            costGlyphs[cost] = glyph;
+        }
+        draw(g2, glyph, x, y);
+    }
+
+    /**
+     * Method to draw text centered in the tile at x,y
+     * @param g2 is the Graphics2D object (Its rendering hints are used to render new glyphs)
+     * @param x is the x coordinate of the tile
+     * @param y is the y coordinate of the tile
+     * @param text is the text to draw
+     */
+    public void drawText(Graphics2D g2, int x, int y, String text) {
+        Glyph glyph = textGlyphs.get(text);
+        if(glyph == null) {
+            if(textGlyphs.size() >= MAX_TEXT_GLYPHS) {
+                textGlyphs.clear();
+            }
+            glyph = renderText(g2, text);
+            textGlyphs.put(text, glyph);
+        }
+        draw(g2, glyph, x, y);
+    }
+
+    /**
+     * Method to draw the directional arrow of a path tile at x,y
+     * @param g2 is the Graphics2D object (Its rendering hints are used to render new glyphs)
+     * @param x is the x coordinate of the tile
+     * @param y is the y coordinate of the tile
+     * @param direction is the direction of the arrow (Node.NORTH to Node.WEST, anything else draws nothing)
+     */
+    public void drawArrow(Graphics2D g2, int x, int y, int direction) {
+        if(direction < Node.NORTH || direction > Node.WEST) {
+            return;
+        }
+        Glyph glyph = arrowGlyphs[direction];
+        if(glyph == null) {
+            glyph = renderArrow(g2, direction);
+            arrowGlyphs[direction] = glyph;
+        }
+        draw(g2, glyph, x, y);
+    }
+
+    /**
+     * Method to blit a glyph at its offset from the tile origin
+     * @param g2 is the Graphics2D object
+     * @param glyph is the glyph to draw
+     * @param x is the x coordinate of the tile
+     * @param y is the y coordinate of the tile
+     */
+    private static void draw(Graphics2D g2, Glyph glyph, int x, int y) {
+        g2.drawImage(glyph.image(), x + glyph.x(), y + glyph.y(), null);
+    }
+
+    // *** Rendering ***
+
+    /**
+     * Method to render text into a glyph, placed in the tile exactly as MazeWindow.drawText places it
+     * @param g2 is the Graphics2D object the glyph will be drawn on
+     * @param text is the text to render
+     * @return glyph of the text (Padded a pixel each side for anti-aliasing)
+     */
+    private Glyph renderText(Graphics2D g2, String text) {
+        FontMetrics metrics = g2.getFontMetrics(UiUtils.getNormalFont());
+        int x = (tileSize - metrics.stringWidth(text)) / 2 - 1;
+        int y = (tileSize - metrics.getHeight()) / 2 - 1;
+        BufferedImage image = new BufferedImage(metrics.stringWidth(text) + 2, metrics.getHeight() + 2,
+                BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g = createGraphics(image, g2);
+        MazeWindow.drawText(g, -x, -y, tileSize, text);
+        g.dispose();
+        return new Glyph(image, x, y);
+    }
+
+    /**
+     * Method to render the arrow of a direction into a glyph (A triangle on the tile edge it points to)
+     * @param g2 is the Graphics2D object the glyph will be drawn on
+     * @param direction is the direction of the arrow
+     * @return glyph of the arrow (Padded a pixel each side for anti-aliasing)
+     */
+    private Glyph renderArrow(Graphics2D g2, int direction) {
+        int size = tileSize;
+        Polygon arrow = switch (direction) {
+            case Node.NORTH -> new Polygon(
+                    new int[]{size/4, size/2, 3*(size/4)},
+                    new int[]{size/4, 0, size/4},
+                    3);
+            case Node.SOUTH -> new Polygon(
+                    new int[]{size/4, size/2, 3*(size/4)},
+                    new int[]{3*(size/4), size, 3*(size/4)},
+                    3);
+            case Node.EAST -> new Polygon(
+                    new int[]{3*(size/4), size, 3*(size/4)},
+                    new int[]{size/4, size/2, 3*(size/4)},
+                    3);
+            default -> new Polygon(
+                    new int[]{size/4, 0, size/4},
+                    new int[]{size/4, size/2, 3*(size/4)},
+                    3);
+        };
+        Rectangle bounds = arrow.getBounds();
+        int x = bounds.x - 1;
+        int y = bounds.y - 1;
+        BufferedImage image = new BufferedImage(bounds.width + 2, bounds.height + 2, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g = createGraphics(image, g2);
+        g.translate(-x, -y);
+        g.setColor(MazeWindow.COLOR_ARROW);
+        g.fillPolygon(arrow);
+        g.dispose();
+        return new Glyph(image, x, y);
+    }
+
+    /**
+     * Method to create the graphics of a glyph image with the rendering hints of the panel graphics
+     * @param image is the glyph image
+     * @param g2 is the Graphics2D object the glyph will be drawn on
+     * @return graphics of the glyph image
+     */
+    private static Graphics2D createGraphics(BufferedImage image, Graphics2D g2) {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHints(g2.getRenderingHints());
+        return g;
+    }
+}
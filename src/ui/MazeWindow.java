@@ -3,15 +3,26 @@ package ui;
 import maze.Maze;
 import maze.Node;
 import maze.PathAlgorithms;
+import maze.PathCache;
 import maze.PathResult;
+import maze.SearchTrace;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Hashtable;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 
 import static javax.swing.JOptionPane.showMessageDialog;
 
@@ -55,6 +66,11 @@ public class MazeWindow extends JFrame {
     // Modify Display Speed
     JSlider speedModifier;
 
+    // Timeline (Seek to any streamed expansion step)
+    JLabel timelineTitle;
+    JSlider timeline;
+    JToggleButton pauseButton;
+
     // Reset/Run Buttons
     JButton runButton;
     JButton resetButton;
@@ -72,6 +88,11 @@ public class MazeWindow extends JFrame {
     Node start;
     Node goal;
 
+    // *** Background Search ***
+    SwingWorker<PathResult, Void> searchWorker;
+    ExpansionStream expansionStream; // Tile indexes streamed from the search, played back by the display timer
+    boolean searchDone;
+
     /**
      * Constructor - Load maze from given filename and initialize GUI
      * @param parent is the load frame GUI
@@ -105,6 +126,16 @@ public class MazeWindow extends JFrame {
         setMinimumSize(d);
 
         setLocationRelativeTo(parent); // Open above parent frame
+
+        // Cancel any running search and drop cached results when the window is closed
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cancelSearch();
+                PathCache.getShared().invalidate(maze);
+            }
+        });
+
         setVisible(true);
     }
 
@@ -182,10 +213,15 @@ public class MazeWindow extends JFrame {
         JPanel togglePanel = initTogglePanel();
 
         // Speed Modifier
-        JLabel speedTitle = new JLabel("Speed Modifier", SwingConstants.CENTER);
+        JLabel speedTitle = new JLabel("Speed (Nodes/s)", SwingConstants.CENTER);
         speedTitle.setFont(UiUtils.getNormalFont());
         setupSpeedModifier();
 
+        // Timeline
+        timelineTitle = new JLabel("Timeline", SwingConstants.CENTER);
+        timelineTitle.setFont(UiUtils.getNormalFont());
+        JPanel timelinePanel = initTimelinePanel();
+
         // Run Button
         JPanel buttonPanel = new JPanel();
         buttonPanel.setLayout(new GridLayout());
@@ -207,6 +243,8 @@ public class MazeWindow extends JFrame {
         optionsPanel.add(togglePanel);
         optionsPanel.add(speedTitle);
         optionsPanel.add(speedModifier);
+        optionsPanel.add(timelineTitle);
+        optionsPanel.add(timelinePanel);
         optionsPanel.add(buttonPanel);
 
         return optionsPanel;
@@ -360,284 +398,871 @@ public class MazeWindow extends JFrame {
      * Method to set up the display speed modifier slider
      */
     public void setupSpeedModifier() {
-        speedModifier = new JSlider(0, 5, 0);
-        speedModifier.addChangeListener(e -> mazePanel.updateTimer(speedModifier.getValue()));
+        int[] speeds = MazePanel.PLAYBACK_SPEEDS;
+        speedModifier = new JSlider(0, speeds.length - 1, 0);
+        speedModifier.addChangeListener(e -> mazePanel.setPlaybackSpeed(speeds[speedModifier.getValue()]));
         speedModifier.setPaintTicks(true);
         speedModifier.setMajorTickSpacing(1);
-        speedModifier.setPaintLabels(true);
         speedModifier.setSnapToTicks(true);
+
+        // Label the first, every third and the last (Instant) speed
+        Hashtable<Integer, JLabel> labels = new Hashtable<>();
+        for(int i = 0; i < speeds.length; i++) {
+            if(speeds[i] == MazePanel.SPEED_INSTANT) {
+                labels.put(i, new JLabel("Max"));
+            }
+            else if(i % 3 == 0) {
+                labels.put(i, new JLabel(speeds[i] >= 1000 ? speeds[i] / 1000 + "k" : String.valueOf(speeds[i])));
+            }
+        }
+        speedModifier.setLabelTable(labels);
+        speedModifier.setPaintLabels(true);
+    }
+
+    /**
+     * Method to initialize the timeline panel (Step slider and pause button)
+     * Dragging the slider seeks the display to any streamed expansion step, holding playback until it is released
+     * @return the timeline panel
+     */
+    private JPanel initTimelinePanel() {
+        JPanel timelinePanel = new JPanel();
+        timelinePanel.setLayout(new BorderLayout());
+
+        // Step Slider
+        timeline = new JSlider(0, 0, 0);
+        timeline.addChangeListener(e -> {
+            if(timeline.getValue() != mazePanel.getShownSteps()) {
+                mazePanel.seek(timeline.getValue());
+            }
+        });
+
+        // Pause Button
+        pauseButton = new JToggleButton("Pause");
+        pauseButton.addActionListener(e -> {
+            if(!pauseButton.isSelected()) {
+                mazePanel.resumePlayback();
+            }
+        });
+
+        // Add components to panel
+        timelinePanel.add(timeline, BorderLayout.CENTER);
+        timelinePanel.add(pauseButton, BorderLayout.EAST);
+
+        return timelinePanel;
+    }
+
+    /**
+     * Method to update the timeline to the shown step and the number of streamed steps
+     * @param shownSteps is the number of expansions shown
+     * @param totalSteps is the number of expansions streamed so far
+     */
+    private void updateTimeline(int shownSteps, int totalSteps) {
+        // One change event with the new value, so the slider's listener doesn't seek back to the old one
+        timeline.getModel().setRangeProperties(shownSteps, 0, 0, totalSteps, timeline.getValueIsAdjusting());
+        timelineTitle.setText(totalSteps == 0 ? "Timeline" : String.format("Timeline (Step %,d of %,d)", shownSteps, totalSteps));
     }
 
     /**
      * Class - Used to handle Maze Display of PathResults
+     * The view can be zoomed (Mouse wheel, around the cursor), panned (Drag) and fit back to the panel (Double click)
+     *
+     * Zoomed in, the static maze (Open tiles, walls, costs and tile boxes) of the tiles in view is pre-rendered
+     * into a cached panel-sized background image, rebuilt only when the view, panel size or cost toggle changes.
+     * Each paint blits the background and draws the overlays (Expanded, path, start and goal tiles) of the tiles
+     * inside the clip, so frame time depends on the viewport size and not on the maze size
+     *
+     * Below OVERVIEW_ZOOM pixels per tile the panel draws a downsampled overview image instead (One pixel per
+     * block of tiles), which is built once and then updated pixel by pixel as tiles are expanded
+     *
+     * Each tile keeps the first step at which it was expanded, so the display at step k is every tile with a
+     * step below k: seeking the timeline only moves shownSteps (Plus recording any steps not seen yet) and
+     * repaints, and the overview is recolored from the first step of each block
      */
     private class MazePanel extends JPanel implements ActionListener {
-        public static final int DEFAULT_TIMER_DELAY = 100;
-
-        public HashSet<Node> expanded;
-        public int index;
+        public static final int FRAME_DELAY = 16; // Timer delay between playback frames (About 60 frames per second)
+        public static final int SPEED_INSTANT = Integer.MAX_VALUE; // Show every streamed expansion each frame
+        public static final int[] PLAYBACK_SPEEDS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 50000,
+                250000, 1000000, SPEED_INSTANT}; // Nodes per second of the speed slider
+        public static final double OVERVIEW_ZOOM = 4; // Pixels per tile below which the overview is drawn
+        public static final double MAX_ZOOM = 200;
+        public static final double ZOOM_STEP = 1.25; // Zoom factor of one mouse wheel notch
+        public static final int MIN_TEXT_SIZE = 10; // Smallest tile size with costs and labels
+        public static final int MIN_BOX_SIZE = 6; // Smallest tile size with tile boxes
+        public static final int MAX_OVERVIEW_SIZE = 2048; // Largest overview image side in pixels
+        public static final int MIN_MARKER_SIZE = 5; // Smallest start and goal marker in the overview
+        private static final Stroke TILE_BOX_STROKE = new BasicStroke(2);
+
+        public static final int NOT_EXPANDED = Integer.MAX_VALUE; // Step of a tile that is not expanded
+
+        private int[] expandStep; // First expansion step of each tile (NOT_EXPANDED if not recorded yet)
+        private int recordedSteps; // Number of streamed steps recorded in expandStep
         public Timer timer;
         public boolean showPath;
 
+        // Playback - expansions are shown at playbackSpeed nodes per second, however long each frame takes
+        private int playbackSpeed = PLAYBACK_SPEEDS[0];
+        private int shownSteps; // Number of streamed expansions shown (Tiles with a lower expandStep are expanded)
+        private double stepBudget; // Expansions owed to the display but not yet shown (Fraction carried over)
+        private long lastFrame; // System.nanoTime of the previous frame
+
+        // Path of the finished search by tile index (Direction of each path tile)
+        private BitSet pathTiles;
+        private byte[] pathDirections;
+
+        // View - zoom in pixels per tile and panel position of the maze origin
+        private boolean fitView = true; // Follow the panel size until the user zooms or pans
+        private double zoom;
+        private double viewX;
+        private double viewY;
+        private Point dragPoint;
+
+        // Pre-rendered costs, labels and arrows of the current tile size
+        private final GlyphCache glyphs = new GlyphCache();
+
+        // Cached Background (Tile view)
+        private BufferedImage background;
+        private int backgroundTileSize;
+        private int backgroundX;
+        private int backgroundY;
+        private boolean backgroundCosts;
+
+        // Cached Overview (Each pixel is a block of overviewBlock x overviewBlock tiles)
+        private BufferedImage overview;
+        private int[] overviewPixels; // Backing array of the overview image
+        private int[] overviewBase; // Overview pixels of the plain maze (Restored when the display is cleared)
+        private int[] overviewStep; // First expansion step of any tile in each block
+        private int overviewBlock;
+
+        // Layout (Updated before each paint)
+        private int tileSize; // 0 in the overview
+        private int xOffset;
+        private int yOffset;
+
         public MazePanel() {
             //setBorder(new LineBorder(Color.BLACK, 1));
-            timer = new Timer(DEFAULT_TIMER_DELAY, this); // Setup Timer (Default 100ms)
+            timer = new Timer(FRAME_DELAY, this); // Setup Playback Timer
             showPath = false;
+            initViewControls();
         }
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
             Graphics2D g2 = (Graphics2D) g;
+            setRenderingHints(g2);
+            updateLayout();
 
-            // Set rendering hints for text anti-aliasing
-            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            if(tileSize == 0) {
+                paintOverview(g2);
+                return;
+            }
 
-            // Set rendering hints for drawing anti-aliasing
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            // Rebuild Background when the view, size or cost toggle changes
+            if(background == null || background.getWidth() != getWidth() || background.getHeight() != getHeight()
+                    || backgroundTileSize != tileSize || backgroundX != xOffset || backgroundY != yOffset
+                    || backgroundCosts != showCost.isSelected()) {
+                renderBackground();
+            }
+            g2.drawImage(background, 0, 0, null);
 
-            final int MIN_SQUARE_SIZE = 10; // Set Minimum Tile Size
+            // Draw Overlays of the tiles inside the clip
+            Rectangle clip = g2.getClipBounds();
+            if(clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            int firstCol = Math.max(0, Math.floorDiv(clip.x - 1 - xOffset, tileSize));
+            int lastCol = Math.min(maze.getWidth() - 1, Math.floorDiv(clip.x + clip.width - xOffset, tileSize));
+            int firstRow = Math.max(0, Math.floorDiv(clip.y - 1 - yOffset, tileSize));
+            int lastRow = Math.min(maze.getHeight() - 1, Math.floorDiv(clip.y + clip.height - yOffset, tileSize));
+
+            for(int row = firstRow; row <= lastRow; row++) {
+                for(int col = firstCol; col <= lastCol; col++) {
+                    drawOverlay(g2, row, col, xOffset + col * tileSize, yOffset + row * tileSize);
+                }
+            }
+        }
 
-            // Tile IDs
-            final int TILE_OPEN = 0;
-            final int TILE_WALL = 1;
-            final int TILE_START = 2;
-            final int TILE_GOAL = 3;
-            final int TILE_PATH = 4;
-            final int TILE_EXPANDED = 5;
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            ExpansionStream stream = expansionStream;
+            if(stream == null) {
+                timer.stop();
+                return;
+            }
 
+            // Read searchDone before the stream size, so every expansion is already streamed when it is set
+            boolean done = searchDone;
+            int available = stream.size() - shownSteps;
 
-            // Get Size from Maze
-            int cols = maze.getWidth();
-            int rows = maze.getHeight();
-            
-            // Calculate Tile Size
-            int tileSize = Math.max(MIN_SQUARE_SIZE, Math.min(getWidth() / cols, getHeight() / rows));
-
-            // Calculate Offsets
-            int xOffset = (getWidth() - (tileSize * cols)) / 2;
-            int yOffset = (getHeight() - (tileSize * rows)) / 2;
-
-            // Draw Tiles
-            for(int i = 0; i < cols; i++) {
-                for(int j = 0; j < rows; j++) {
-                    int x = xOffset + i * tileSize;
-                    int y = yOffset + j * tileSize;
-
-                    // Get Current Node
-                    Node curNode = new Node(j, i);
-
-                    // Open Tile
-                    int tileType = TILE_OPEN;
-
-                    // Expanded and Path
-                    if(pathResult != null) {
-                        // Tile Type - Expanded
-                        if(expanded.contains(curNode)) {
-                            tileType = TILE_EXPANDED;
-                        }
-
-                        // Tile Type - Path
-                        if(pathResult.path().contains(curNode) && showPath) {
-                            // Override curNode with the pathNode to include Direction
-                            curNode = pathResult.path().get(pathResult.path().indexOf(curNode));
-
-                            tileType = TILE_PATH;
-                        }
-                    }
+            // Work out how many expansions this frame owes from the time since the last frame
+            long now = System.nanoTime();
+            int count;
+            if(pauseButton.isSelected() || timeline.getValueIsAdjusting()) {
+                count = 0;
+                stepBudget = 0;
+            }
+            else if(playbackSpeed == SPEED_INSTANT) {
+                count = available;
+            }
+            else {
+                stepBudget += (now - lastFrame) * (double) playbackSpeed / 1e9;
+                count = (int) Math.min(available, stepBudget);
+                stepBudget -= count;
+                // Caught up with the search - don't bank time to burst through later expansions
+                if(count == available) {
+                    stepBudget = Math.min(stepBudget, 1);
+                }
+            }
+            lastFrame = now;
 
+            if(count > 0) {
+                showSteps(stream, count);
+            }
+            updateTimeline(shownSteps, stream.size());
 
-                    // Start Tile
-                    if(start != null) {
-                        if(curNode.equals(start)) {
-                            tileType = TILE_START;
-                        }
-                    }
+            // Stop Timer as Display is Done (Search finished and every expansion shown, or paused)
+            if(done && shownSteps == stream.size()) {
+                if(!showPath) {
+                    showPathTiles();
+                }
+                timer.stop();
+            }
+            else if(done && count == 0 && pauseButton.isSelected()) {
+                timer.stop();
+            }
+        }
 
-                    // Goal Tile
-                    if(goal != null) {
-                        if(curNode.equals(goal)) {
-                            tileType = TILE_GOAL;
-                        }
-                    }
+        /**
+         * Method to begin display of expanding nodes as they are streamed from the search
+         */
+        public void startExpandedDisplay() {
+            clearExpandedDisplay();
+            expandStep = new int[maze.getSize()];
+            Arrays.fill(expandStep, NOT_EXPANDED);
+            if(overview != null) {
+                overviewStep = new int[overviewPixels.length];
+                Arrays.fill(overviewStep, NOT_EXPANDED);
+            }
+            resumePlayback();
+        }
+
+        /**
+         * Method to restart the playback timer (If stopped) from the shown step
+         */
+        public void resumePlayback() {
+            if(expansionStream == null || timer.isRunning()) {
+                return;
+            }
+            stepBudget = 0;
+            lastFrame = System.nanoTime();
+            timer.start();
+        }
+
+        /**
+         * Method to seek the display to a step of the streamed expansions
+         * Going back costs nothing but a repaint; going forward records the steps not seen yet, once each
+         * @param step is the number of expansions to show (Clamped to the streamed steps)
+         */
+        public void seek(int step) {
+            ExpansionStream stream = expansionStream;
+            if(stream == null || expandStep == null) {
+                return;
+            }
+            boolean done = searchDone;
+            int totalSteps = stream.size();
+            step = Math.max(0, Math.min(step, totalSteps));
+            recordSteps(stream, step);
+            shownSteps = step;
+            stepBudget = 0;
+
+            // Path is only shown at the end of a finished search
+            showPath = false;
+            if(overview != null) {
+                updateOverviewPixels();
+            }
+            if(done && step == totalSteps) {
+                showPathTiles();
+            }
+            repaint();
+
+            updateTimeline(shownSteps, totalSteps);
+            resumePlayback();
+        }
+
+        /**
+         * Method to get the number of expansions shown
+         * @return number of expansions shown
+         */
+        public int getShownSteps() {
+            return shownSteps;
+        }
+
+        /**
+         * Method to show the next streamed expansions, repainting their bounding area once
+         * @param stream is the expansion stream of the running search
+         * @param count is the number of expansions to show
+         */
+        private void showSteps(ExpansionStream stream, int count) {
+            recordSteps(stream, shownSteps + count);
+            int width = maze.getWidth();
+            int firstRow = Integer.MAX_VALUE;
+            int firstCol = Integer.MAX_VALUE;
+            int lastRow = -1;
+            int lastCol = -1;
+
+            for(int i = 0; i < count; i++) {
+                int index = stream.get(shownSteps++);
+                if(overview != null) {
+                    setOverviewPixel(index, COLOR_EXPANDED);
+                }
+                int row = index / width;
+                int col = index % width;
+                firstRow = Math.min(firstRow, row);
+                firstCol = Math.min(firstCol, col);
+                lastRow = Math.max(lastRow, row);
+                lastCol = Math.max(lastCol, col);
+            }
+            repaintTiles(firstRow, firstCol, lastRow, lastCol);
+        }
 
-                    // Wall Tile
-                    if(maze.isWall(curNode)) {
-                        tileType = TILE_WALL;
+        /**
+         * Method to record the first expansion step of the tiles expanded before a given step
+         * @param stream is the expansion stream of the running search
+         * @param step is the step to record up to (Exclusive)
+         */
+        private void recordSteps(ExpansionStream stream, int step) {
+            for(; recordedSteps < step; recordedSteps++) {
+                int index = stream.get(recordedSteps);
+                if(expandStep[index] != NOT_EXPANDED) {
+                    continue;
+                }
+                expandStep[index] = recordedSteps;
+                if(overviewStep != null) {
+                    int block = getOverviewBlock(index);
+                    overviewStep[block] = Math.min(overviewStep[block], recordedSteps);
+                }
+            }
+        }
+
+        /**
+         * Method to check if a tile is expanded at the shown step
+         * @param index is the given tile index
+         * @return if the tile is shown as expanded
+         */
+        private boolean isExpanded(int index) {
+            return expandStep != null && expandStep[index] < shownSteps;
+        }
+
+        /**
+         * Method to clear all expanded nodes from the display
+         */
+        public void clearExpandedDisplay() {
+            showPath = false;
+            expandStep = null;
+            overviewStep = null;
+            recordedSteps = 0;
+            shownSteps = 0;
+            stepBudget = 0;
+            pathTiles = null;
+            pathDirections = null;
+            if(overview != null) {
+                System.arraycopy(overviewBase, 0, overviewPixels, 0, overviewBase.length);
+            }
+            repaint();
+        }
+
+        /**
+         * Method to show the path of the finished search, indexing its tiles and directions once
+         */
+        private void showPathTiles() {
+            if(pathResult == null) {
+                return;
+            }
+            // Index the path once (Seeking back to the last step shows it again)
+            if(pathTiles == null) {
+                pathTiles = new BitSet(maze.getSize());
+                pathDirections = new byte[maze.getSize()];
+                for(Node n : pathResult.path()) {
+                    int index = maze.getIndex(n);
+                    pathTiles.set(index);
+                    pathDirections[index] = (byte) n.getDirection();
+                }
+            }
+            if(overview != null) {
+                for(Node n : pathResult.path()) {
+                    setOverviewPixel(maze.getIndex(n), COLOR_PATH);
+                }
+            }
+            showPath = true;
+            repaint();
+        }
+
+        /**
+         * Method to set the playback speed (Takes effect from the next frame)
+         * @param nodesPerSecond is the number of expansions shown per second, or SPEED_INSTANT
+         */
+        public void setPlaybackSpeed(int nodesPerSecond) {
+            playbackSpeed = nodesPerSecond;
+            stepBudget = 0;
+        }
+
+        /**
+         * Method to stop the timer
+         */
+        public void killTimer() {
+            timer.stop();
+        }
+
+        // *** View ***
+
+        /**
+         * Method to add the mouse controls of the view (Wheel zoom, drag pan, double click fit)
+         */
+        private void initViewControls() {
+            MouseAdapter controls = new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    dragPoint = e.getPoint();
+                }
+
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    if(dragPoint == null) {
+                        return;
                     }
+                    fitView = false;
+                    viewX += e.getX() - dragPoint.x;
+                    viewY += e.getY() - dragPoint.y;
+                    dragPoint = e.getPoint();
+                    repaint();
+                }
+
+                @Override
+                public void mouseReleased(MouseEvent e) {
+                    dragPoint = null;
+                }
 
-                    // Switch between tile types
-                    switch (tileType) {
-                        // Draw Open Tile
-                        case TILE_OPEN -> {
-                            g2.setColor(COLOR_OPEN);
-                            g2.fillRect(x, y, tileSize, tileSize);
-                            drawCost(g2, x, y, tileSize, maze.getTileStr(curNode));
-                        }
-                        // Draw Wall Tile
-                        case TILE_WALL -> {
-                            g2.setColor(COLOR_WALL);
-                            g2.fillRect(x, y, tileSize, tileSize);
-                        }
-                        // Draw Start Tile
-                        case TILE_START -> {
-                            g2.setColor(COLOR_START);
-                            g2.fillRect(x, y, tileSize, tileSize);
-
-                            if(showPath && pathResult != null) {
-                                drawArrow(g2, curNode.getDirection(), x, y, tileSize);
-                            }
-
-                            drawText(g2, x, y, tileSize, "S");
-                        }
-                        // Draw Goal Tile
-                        case TILE_GOAL -> {
-                            g2.setColor(COLOR_GOAL);
-                            g2.fillRect(x, y, tileSize, tileSize);
-
-                            if(showCost.isSelected()) {
-                                drawCost(g2, x, y, tileSize, "G-" + maze.getTileStr(curNode));
-                            }
-                            else {
-                                drawText(g2, x, y, tileSize, "G");
-                            }
-
-                        }
-                        // Draw Path Tile w/ Directional Arrow
-                        case TILE_PATH -> {
-                            g2.setColor(COLOR_PATH);
-                            g2.fillRect(x, y, tileSize, tileSize);
-
-                            drawArrow(g2, curNode.getDirection(), x, y, tileSize);
-
-                            drawCost(g2, x, y, tileSize, maze.getTileStr(curNode));
-                        }
-                        // Draw Expanded Tile
-                        case TILE_EXPANDED -> {
-                            g2.setColor(COLOR_EXPANDED);
-                            g2.fillRect(x, y, tileSize, tileSize);
-                            // Show Cost
-                            drawCost(g2, x, y, tileSize, maze.getTileStr(curNode));
-
-                        }
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if(e.getClickCount() == 2) {
+                        fitView = true;
+                        repaint();
                     }
+                }
+
+                @Override
+                public void mouseWheelMoved(MouseWheelEvent e) {
+                    zoomAt(e.getX(), e.getY(), Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()));
+                }
+            };
+            addMouseListener(controls);
+            addMouseMotionListener(controls);
+            addMouseWheelListener(controls);
+        }
+
+        /**
+         * Method to zoom the view by a factor, keeping the maze point under the given panel point in place
+         * @param x is the panel x coordinate to zoom around
+         * @param y is the panel y coordinate to zoom around
+         * @param factor is the zoom factor (Above 1 zooms in)
+         */
+        private void zoomAt(int x, int y, double factor) {
+            updateLayout();
+            double oldScale = getScale();
+            double minZoom = Math.min(getFitZoom(), 1) / 2;
+            zoom = Math.max(minZoom, Math.min(MAX_ZOOM, zoom * factor));
+            fitView = false;
+            updateLayout();
+
+            // Maze coordinates under the cursor stay under the cursor
+            double scale = getScale();
+            viewX = x - (x - viewX) / oldScale * scale;
+            viewY = y - (y - viewY) / oldScale * scale;
+            repaint();
+        }
+
+        /**
+         * Method to get the zoom that fits the whole maze in the panel
+         * @return pixels per tile of the fitted view
+         */
+        private double getFitZoom() {
+            double fit = Math.min((double) getWidth() / maze.getWidth(), (double) getHeight() / maze.getHeight());
+            return fit >= OVERVIEW_ZOOM ? Math.floor(fit) : fit; // Whole pixel tiles
+        }
 
-                    // At Black Box Around Tile
-                    g2.setColor(COLOR_TILE_BOX);
-                    Stroke oldStroke = g2.getStroke();
-                    g2.setStroke(new BasicStroke(2));
-                    g2.drawRect(x, y, tileSize, tileSize);
-                    g2.setStroke(oldStroke);
+        /**
+         * Method to get the drawn size of one tile (Whole pixels in the tile view)
+         * @return pixels per tile
+         */
+        private double getScale() {
+            return tileSize > 0 ? tileSize : zoom;
+        }
+
+        /**
+         * Method to update the tile size and maze position from the view (Fitting and centering the maze if not moved)
+         * The maze is kept from leaving the panel
+         */
+        private void updateLayout() {
+            if(fitView) {
+                zoom = getFitZoom();
+            }
+            tileSize = zoom >= OVERVIEW_ZOOM ? (int) Math.round(zoom) : 0;
+            glyphs.setTileSize(tileSize);
+
+            double mazeWidth = maze.getWidth() * getScale();
+            double mazeHeight = maze.getHeight() * getScale();
+            if(fitView) {
+                viewX = (getWidth() - mazeWidth) / 2;
+                viewY = (getHeight() - mazeHeight) / 2;
+            }
+            viewX = Math.max(Math.min(0, getWidth() - mazeWidth) - getWidth() / 2.0,
+                    Math.min(Math.max(0, getWidth() - mazeWidth) + getWidth() / 2.0, viewX));
+            viewY = Math.max(Math.min(0, getHeight() - mazeHeight) - getHeight() / 2.0,
+                    Math.min(Math.max(0, getHeight() - mazeHeight) + getHeight() / 2.0, viewY));
+
+            xOffset = (int) Math.floor(viewX);
+            yOffset = (int) Math.floor(viewY);
+        }
 
+        // *** Rendering ***
+
+        /**
+         * Method to set the anti-aliasing rendering hints for text and drawing
+         * @param g2 is the Graphics2D object
+         */
+        private void setRenderingHints(Graphics2D g2) {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+
+        /**
+         * Method to pre-render every visible tile as open or wall into the background image
+         * Only tiles inside the panel are drawn, so the image never grows past the panel size
+         */
+        private void renderBackground() {
+            background = new BufferedImage(Math.max(1, getWidth()), Math.max(1, getHeight()), BufferedImage.TYPE_INT_RGB);
+            backgroundTileSize = tileSize;
+            backgroundX = xOffset;
+            backgroundY = yOffset;
+            backgroundCosts = showCost.isSelected();
+
+            Graphics2D g2 = background.createGraphics();
+            setRenderingHints(g2);
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, background.getWidth(), background.getHeight());
+
+            int firstCol = Math.max(0, Math.floorDiv(-1 - xOffset, tileSize));
+            int lastCol = Math.min(maze.getWidth() - 1, Math.floorDiv(getWidth() - xOffset, tileSize));
+            int firstRow = Math.max(0, Math.floorDiv(-1 - yOffset, tileSize));
+            int lastRow = Math.min(maze.getHeight() - 1, Math.floorDiv(getHeight() - yOffset, tileSize));
+
+            for(int row = firstRow; row <= lastRow; row++) {
+                for(int col = firstCol; col <= lastCol; col++) {
+                    int x = xOffset + col * tileSize;
+                    int y = yOffset + row * tileSize;
+                    int index = row * maze.getWidth() + col;
+
+                    if(maze.isOpen(index)) {
+                        g2.setColor(COLOR_OPEN);
+                        g2.fillRect(x, y, tileSize, tileSize);
+                        drawCost(g2, x, y, index);
+                    }
+                    else {
+                        g2.setColor(COLOR_WALL);
+                        g2.fillRect(x, y, tileSize, tileSize);
+                    }
+                    drawTileBox(g2, x, y);
                 }
             }
+            g2.dispose();
         }
 
-        @Override
-        public void actionPerformed(ActionEvent e) {
+        /**
+         * Method to draw a tile over the background if it is not a plain open tile or wall
+         * Priority: Wall > Goal > Start > Path > Expanded
+         * @param g2 is the Graphics2D object
+         * @param row is the tile row
+         * @param col is the tile column
+         * @param x is the x coordinate of the tile
+         * @param y is the y coordinate of the tile
+         */
+        private void drawOverlay(Graphics2D g2, int row, int col, int x, int y) {
+            int index = row * maze.getWidth() + col;
+            if(!maze.isOpen(index)) {
+                return;
+            }
+            boolean onPath = showPath && pathTiles != null && pathTiles.get(index);
 
-            LinkedList<Node> expandedOrder = pathResult.expandedOrder();
+            // Goal Tile
+            if(goal != null && goal.getX() == row && goal.getY() == col) {
+                g2.setColor(COLOR_GOAL);
+                g2.fillRect(x, y, tileSize, tileSize);
 
-            // Add next expanded node to display
-            if(index < expandedOrder.size()) {
-                expanded.add(expandedOrder.get(index));
-                index++;
+                if(showCost.isSelected()) {
+                    drawLabel(g2, x, y, "G-" + maze.getTileStr(index));
+                }
+                else {
+                    drawLabel(g2, x, y, "G");
+                }
+            }
+            // Start Tile
+            else if(start != null && start.getX() == row && start.getY() == col) {
+                g2.setColor(COLOR_START);
+                g2.fillRect(x, y, tileSize, tileSize);
+
+                if(onPath) {
+                    drawArrow(g2, pathDirections[index], x, y);
+                }
+
+                drawLabel(g2, x, y, "S");
+            }
+            // Path Tile w/ Directional Arrow
+            else if(onPath) {
+                g2.setColor(COLOR_PATH);
+                g2.fillRect(x, y, tileSize, tileSize);
+
+                drawArrow(g2, pathDirections[index], x, y);
+
+                drawCost(g2, x, y, index);
+            }
+            // Expanded Tile
+            else if(isExpanded(index)) {
+                g2.setColor(COLOR_EXPANDED);
+                g2.fillRect(x, y, tileSize, tileSize);
+                // Show Cost
+                drawCost(g2, x, y, index);
             }
-            // Stop Timer as Display is Done
+            // Open Tile - already in the background
             else {
-                showPath = true;
-                timer.stop();
+                return;
             }
 
-            repaint();
+            drawTileBox(g2, x, y);
         }
 
         /**
-         * Method to begin display of expanding nodes
+         * Method to draw the black box around a tile (Without anti-aliasing, so redrawing a box is idempotent)
+         * @param g2 is the Graphics2D object
+         * @param x is the x coordinate of the tile
+         * @param y is the y coordinate of the tile
          */
-        public void startExpandedDisplay() {
-            showPath = false;
-            expanded = new HashSet<>();
-            index = 0;
-            timer.start();
+        private void drawTileBox(Graphics2D g2, int x, int y) {
+            if(tileSize < MIN_BOX_SIZE) {
+                return;
+            }
+            g2.setColor(COLOR_TILE_BOX);
+            Stroke oldStroke = g2.getStroke();
+            g2.setStroke(TILE_BOX_STROKE);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            g2.drawRect(x, y, tileSize, tileSize);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setStroke(oldStroke);
+        }
+
+        /**
+         * Method to repaint only the area of one tile (Including its box, which overlaps the neighbors by a pixel)
+         * In the overview the area of the tile's overview pixel is repainted
+         * @param index is the given tile index
+         */
+        public void repaintTile(int index) {
+            int row = index / maze.getWidth();
+            int col = index % maze.getWidth();
+            repaintTiles(row, col, row, col);
+        }
+
+        /**
+         * Method to repaint only the area of a block of tiles (Including the boxes of its edge tiles)
+         * In the overview the area of the block's overview pixels is repainted
+         * @param firstRow is the top row of the block
+         * @param firstCol is the left column of the block
+         * @param lastRow is the bottom row of the block
+         * @param lastCol is the right column of the block
+         */
+        public void repaintTiles(int firstRow, int firstCol, int lastRow, int lastCol) {
+            int rows = lastRow - firstRow + 1;
+            int cols = lastCol - firstCol + 1;
+            if(tileSize > 0) {
+                repaint(xOffset + firstCol * tileSize - 1, yOffset + firstRow * tileSize - 1,
+                        cols * tileSize + 2, rows * tileSize + 2);
+            }
+            // Not painted yet - no layout to work out the area from
+            else if(overviewBlock == 0) {
+                repaint();
+            }
+            else {
+                double blockSize = overviewBlock * zoom;
+                int x = (int) Math.floor(viewX + firstCol / overviewBlock * blockSize);
+                int y = (int) Math.floor(viewY + firstRow / overviewBlock * blockSize);
+                int w = (int) Math.ceil((lastCol / overviewBlock - firstCol / overviewBlock + 1) * blockSize) + 1;
+                int h = (int) Math.ceil((lastRow / overviewBlock - firstRow / overviewBlock + 1) * blockSize) + 1;
+                repaint(x, y, w, h);
+            }
         }
 
+        // *** Overview ***
+
         /**
-         * Method to update the timer
-         * @param multiplier is used to modify the timer
+         * Method to draw the overview image scaled to the view, with start and goal markers on top
+         * @param g2 is the Graphics2D object
          */
-        public void updateTimer(int multiplier) {
-            if(multiplier <= 0) {
+        private void paintOverview(Graphics2D g2) {
+            if(overview == null) {
+                renderOverview();
+            }
+            double blockSize = overviewBlock * zoom;
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2.drawImage(overview, xOffset, yOffset, (int) Math.ceil(overview.getWidth() * blockSize),
+                    (int) Math.ceil(overview.getHeight() * blockSize), null);
+
+            drawMarker(g2, start, COLOR_START);
+            drawMarker(g2, goal, COLOR_GOAL);
+        }
+
+        /**
+         * Method to draw a start or goal marker in the overview (At least MIN_MARKER_SIZE pixels so it stays visible)
+         * @param g2 is the Graphics2D object
+         * @param n is the marked node (Nothing is drawn if null)
+         * @param color is the marker color
+         */
+        private void drawMarker(Graphics2D g2, Node n, Color color) {
+            if(n == null) {
                 return;
             }
-            // New Delay = DEFAULT / 2^multiplier
-            int newDelay = DEFAULT_TIMER_DELAY / (int)(Math.pow(2, multiplier));
+            int size = Math.max(MIN_MARKER_SIZE, (int) Math.ceil(zoom));
+            int x = (int) (viewX + (n.getY() + 0.5) * zoom) - size / 2;
+            int y = (int) (viewY + (n.getX() + 0.5) * zoom) - size / 2;
+            g2.setColor(color);
+            g2.fillRect(x, y, size, size);
+            g2.setColor(COLOR_TILE_BOX);
+            g2.drawRect(x, y, size, size);
+        }
+
+        /**
+         * Method to build the overview image of the maze (One pixel per block of tiles, at most MAX_OVERVIEW_SIZE a side)
+         * A block is drawn as a wall if most of its tiles are walls, then expanded and path tiles are drawn over it
+         */
+        private void renderOverview() {
+            int cols = maze.getWidth();
+            int rows = maze.getHeight();
+            overviewBlock = Math.max(1, (Math.max(cols, rows) + MAX_OVERVIEW_SIZE - 1) / MAX_OVERVIEW_SIZE);
+            int width = (cols + overviewBlock - 1) / overviewBlock;
+            int height = (rows + overviewBlock - 1) / overviewBlock;
+
+            // Count walls of each block
+            int[] walls = new int[width * height];
+            int[] tiles = new int[width * height];
+            for(int row = 0; row < rows; row++) {
+                int blockRow = row / overviewBlock * width;
+                for(int col = 0; col < cols; col++) {
+                    int block = blockRow + col / overviewBlock;
+                    tiles[block]++;
+                    if(!maze.isOpen(row * cols + col)) {
+                        walls[block]++;
+                    }
+                }
+            }
 
-            timer.setDelay(newDelay);
+            overviewBase = new int[width * height];
+            for(int i = 0; i < overviewBase.length; i++) {
+                overviewBase[i] = (walls[i] * 2 > tiles[i] ? COLOR_WALL : COLOR_OPEN).getRGB();
+            }
+            overview = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            overviewPixels = ((DataBufferInt) overview.getRaster().getDataBuffer()).getData();
+            System.arraycopy(overviewBase, 0, overviewPixels, 0, overviewBase.length);
+
+            // First expansion step of each block, then current expansions and path
+            if(expandStep != null) {
+                overviewStep = new int[width * height];
+                Arrays.fill(overviewStep, NOT_EXPANDED);
+                for(int i = 0; i < expandStep.length; i++) {
+                    int block = getOverviewBlock(i);
+                    overviewStep[block] = Math.min(overviewStep[block], expandStep[i]);
+                }
+            }
+            updateOverviewPixels();
         }
 
         /**
-         * Method to stop the timer
+         * Method to recolor every overview pixel for the shown step (Plain, expanded or path)
          */
-        public void killTimer() {
-            timer.stop();
+        private void updateOverviewPixels() {
+            int expandedRGB = COLOR_EXPANDED.getRGB();
+            for(int i = 0; i < overviewPixels.length; i++) {
+                overviewPixels[i] = overviewStep != null && overviewStep[i] < shownSteps ? expandedRGB : overviewBase[i];
+            }
+            if(showPath && pathTiles != null) {
+                for(int i = pathTiles.nextSetBit(0); i >= 0; i = pathTiles.nextSetBit(i + 1)) {
+                    setOverviewPixel(i, COLOR_PATH);
+                }
+            }
+        }
+
+        /**
+         * Method to color the overview pixel of a tile's block
+         * @param index is the given tile index
+         * @param color is the new pixel color
+         */
+        private void setOverviewPixel(int index, Color color) {
+            overviewPixels[getOverviewBlock(index)] = color.getRGB();
         }
 
         /**
-         * Method to draw costHeuristic when enabled
+         * Method to get the overview pixel of a tile's block
+         * @param index is the given tile index
+         * @return overview pixel index
+         */
+        private int getOverviewBlock(int index) {
+            int row = index / maze.getWidth();
+            int col = index % maze.getWidth();
+            return row / overviewBlock * overview.getWidth() + col / overviewBlock;
+        }
+
+        // *** Text ***
+
+        /**
+         * Method to draw the cost of a tile when enabled, skipped when tiles are too small to read it
          * @param g2 is the Graphics2D object
-         * @param x is the x coordinate
-         * @param y is the y coordinate
-         * @param tileSize is the tileSize to fit
-         * @param text is the text to draw
+         * @param x is the x coordinate of the tile
+         * @param y is the y coordinate of the tile
+         * @param index is the tile index
          */
-        private void drawCost(Graphics2D g2, int x, int y, int tileSize, String text) {
-            if(!showCost.isSelected()) {
+        private void drawCost(Graphics2D g2, int x, int y, int index) {
+            if(!showCost.isSelected() || tileSize < MIN_TEXT_SIZE) {
                 return;
             }
 
-            drawText(g2, x, y, tileSize, text);
+            glyphs.drawCost(g2, x, y, maze.getCost(index));
         }
 
+        /**
+         * Method to draw text centered in a tile, skipped when tiles are too small to read it
+         * @param g2 is the Graphics2D object
+         * @param x is the x coordinate of the tile
+         * @param y is the y coordinate of the tile
+         * @param text is the text to draw
+         */
+        private void drawLabel(Graphics2D g2, int x, int y, String text) {
+            if(tileSize < MIN_TEXT_SIZE) {
+                return;
+            }
 
+            glyphs.drawText(g2, x, y, text);
+        }
 
         /**
-         * Method to draw the directional arrow for a tile at x,y of given size
+         * Method to draw the directional arrow of a path tile at x,y
          * @param g2 is the Graphics2D Object
          * @param direction is the direction
          * @param x is the given x coordinate
          * @param y is the given y coordinate
-         * @param size is the given size
          */
-        private void drawArrow(Graphics2D g2, int direction, int x, int y, int size) {
+        private void drawArrow(Graphics2D g2, int direction, int x, int y) {
             // Only Draw Arrow if Toggled
             if(!showDirection.isSelected()) {
                 return;
             }
 
-            // Set Arrow Color
-            g2.setColor(COLOR_ARROW);
-
-            // Draw Arrow in given direction
-            switch (direction) {
-                case Node.NORTH -> g2.fillPolygon(
-                        new int[]{x + size/4, x + size/2, x + 3*(size/4)},
-                        new int[]{y + size/4, y, y + size/4},
-                        3);
-                case Node.SOUTH -> g2.fillPolygon(
-                        new int[]{x + size/4, x + size/2, x + 3*(size/4)},
-                        new int[]{y + 3*(size/4), y + size, y + 3*(size/4)},
-                        3);
-                case Node.EAST -> g2.fillPolygon(
-                        new int[]{x + 3*(size/4), x+size, x+3*(size/4)},
-                        new int[]{y+size/4, y+size/2, y+3*(size/4)},
-                        3);
-                case Node.WEST -> g2.fillPolygon(
-                        new int[]{x+size/4, x, x+size/4},
-                        new int[]{y+size/4, y+size/2, y+3*(size/4)},
-                        3);
-            }
-
+            glyphs.drawArrow(g2, x, y, direction);
         }
     }
 
@@ -673,42 +1298,126 @@ public class MazeWindow extends JFrame {
         Object algo = algorithmCombobox.getSelectedItem();
         if (algo != null) {
             String algoName = algo.toString();
-            pathResult = maze.runAlgorithm(algoName, start, goal);
+
+            // Stop any running search before starting a new one
+            cancelSearch();
+            resetResultLabels();
+
+            // Start Search in the Background, streaming expansions to the display
+            ExpansionStream stream = new ExpansionStream();
+            expansionStream = stream;
+            searchDone = false;
+            searchWorker = new SearchWorker(algoName, start, goal, stream);
+            searchWorker.execute();
+
+            // Start Display of Expanded Nodes
+            mazePanel.startExpandedDisplay();
+        }
+    }
+
+    /**
+     * Class - Runs a path algorithm off the Event Dispatch Thread
+     * Each expansion is appended to an ExpansionStream as it happens; the search never waits for the display
+     */
+    private class SearchWorker extends SwingWorker<PathResult, Void> {
+        private final String algoName;
+        private final Node searchStart;
+        private final Node searchGoal;
+        private final ExpansionStream stream;
+
+        /**
+         * Constructor - Create a search for the given algorithm, start and goal
+         * @param algoName is the algorithm name
+         * @param searchStart is the start node
+         * @param searchGoal is the goal node
+         * @param stream is the stream to append expansions to (Aborts the search when interrupted by cancel)
+         */
+        public SearchWorker(String algoName, Node searchStart, Node searchGoal, ExpansionStream stream) {
+            this.algoName = algoName;
+            this.searchStart = searchStart;
+            this.searchGoal = searchGoal;
+            this.stream = stream;
+        }
+
+        @Override
+        protected PathResult doInBackground() {
+            SearchTrace trace = new SearchTrace(maze, stream);
+            // Repeated runs are replayed from the cache
+            return PathCache.getShared().runAlgorithm(maze, algoName, searchStart, searchGoal, trace);
+        }
+
+        @Override
+        protected void done() {
+            // Ignore cancelled or replaced searches
+            if(isCancelled() || searchWorker != this) {
+                return;
+            }
+            searchWorker = null;
+            searchDone = true;
+
+            try {
+                pathResult = get();
+            }
+            catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+                pathResult = null;
+            }
 
             if(pathResult == null) {
                 showMessageDialog(null, "No Path Found");
                 return;
             }
 
-            // Start Display of Expanded Nodes
-            mazePanel.startExpandedDisplay();
-
             // Update Text in Results Panel
-            numExpanded.setText(String.format("Number Expanded: %d Nodes", pathResult.expanded().size()));
+            numExpanded.setText(String.format("Number Expanded: %d Nodes", pathResult.numExpanded()));
             pathLength.setText(String.format("Path Length: %d Nodes", pathResult.pathLength()));
             pathCost.setText(String.format("Path Cost: %d Units", pathResult.pathCost()));
         }
     }
 
+    /**
+     * Method to cancel the running search (If any) and clear its streamed expansions
+     */
+    public void cancelSearch() {
+        if(searchWorker != null) {
+            searchWorker.cancel(true);
+            searchWorker = null;
+        }
+        expansionStream = null;
+        searchDone = false;
+        pathResult = null;
+        mazePanel.killTimer();
+        mazePanel.clearExpandedDisplay();
+        updateTimeline(0, 0);
+    }
+
+    /**
+     * Method to reset all labels in the results panel
+     */
+    private void resetResultLabels() {
+        numExpanded.setText("Number Expanded:");
+        pathLength.setText("Path Length:");
+        pathCost.setText("Path Cost:");
+    }
+
     /**
      * Method to reset the current run
      * >Deletes the previous pathResult
      * >Sets the Algorithm to Null
      * >Clear Start and Goal Nodes
-     * >Kills Panel Timer
+     * >Cancels any running search
+     * >Kills Panel Timer and resumes paused playback
      * >Resets all Labels
      */
     public void resetRun() {
-        pathResult = null;
+        cancelSearch();
+        pauseButton.setSelected(false);
         algorithmCombobox.setSelectedIndex(-1);
         clearStart();
         clearGoal();
-        mazePanel.killTimer();
 
         // Reset Labels
-        numExpanded.setText("Number Expanded:");
-        pathLength.setText("Path Length:");
-        pathCost.setText("Path Cost:");
+        resetResultLabels();
     }
 
     /**